@@ -0,0 +1,29 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String BOOKS = "books";
+    public static final String BOOK_TITLES = "bookTitles";
+    public static final String BOOK_FACETS = "bookFacets";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> bookFacetsCacheCustomizer(
+            @Value("${book.facets.cache-size:1000}") long cacheSize,
+            @Value("${book.facets.cache-ttl:60s}") Duration cacheTtl) {
+        return cacheManager -> cacheManager.registerCustomCache(BOOK_FACETS, Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build());
+    }
+}
@@ -4,23 +4,55 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.example.dto.book.BestsellerDto;
+import org.example.dto.book.BookBatchRequestDto;
+import org.example.dto.book.BookBatchResponseDto;
+import org.example.dto.book.BookCategoryAssignmentRequestDto;
+import org.example.dto.book.BookCategoryAssignmentResultDto;
 import org.example.dto.book.BookDto;
+import org.example.dto.book.BookFacetedPageDto;
+import org.example.dto.book.BookFilterDto;
+import org.example.dto.book.BookIsbnLookupRequestDto;
+import org.example.dto.book.BookStockAdjustmentDto;
+import org.example.dto.book.BookStockDto;
+import org.example.dto.book.BookImportResultDto;
 import org.example.dto.book.CreateBookRequestDto;
+import org.example.dto.book.RelatedBooksModelReportDto;
+import org.example.dto.pagination.CursorSliceDto;
+import org.example.service.bestseller.BestsellerService;
+import org.example.service.bestseller.BestsellerWindow;
+import org.example.service.book.BookExportFormat;
+import org.example.service.book.BookExportService;
+import org.example.service.book.BookImportFormat;
+import org.example.service.book.BookImportService;
 import org.example.service.book.BookService;
+import org.example.service.recommendation.RecommendationService;
+import org.example.service.search.BookSearchService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.io.InputStream;
+import java.util.List;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Book API", description = "Book operations")
 @RestController
@@ -28,6 +60,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class BookController {
     private final BookService bookService;
+    private final BookSearchService bookSearchService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final RecommendationService recommendationService;
+    private final BestsellerService bestsellerService;
 
     @Operation(summary = "Get a list of all books with pagination",
             description = "Fetches a paginated and sorted list of all available books. "
@@ -37,23 +74,209 @@ public class BookController {
                     + "'sort: field,(ASC||DESC)' "
                     + "where 'ASC' is ascending and 'DESC' is descending. "
                     + "Default sorting is by in ascending order. "
+                    + "Books can be filtered by 'minPrice', 'maxPrice', exact 'author', "
+                    + "'titlePrefix' and 'categoryIds' matched by 'categoryMatch' (ANY or ALL). "
                     + "Only users with 'USER' authority can access this endpoint."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @GetMapping
-    public Page<BookDto> findAll(Pageable pageable) {
-        return bookService.findAll(pageable);
+    public Page<BookDto> findAll(@Valid BookFilterDto filter, Pageable pageable) {
+        return bookService.findAll(filter, pageable);
+    }
+
+    @Operation(summary = "Get a filtered page of books with facet counts",
+            description = "Accepts the same filters and paging as the book listing and adds "
+                    + "book counts per category and per price bucket. Each facet is counted "
+                    + "with all other filters applied but not its own, so alternative "
+                    + "choices stay visible. Facet counts are cached briefly. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping(params = "facets=true")
+    public BookFacetedPageDto findAllWithFacets(@Valid BookFilterDto filter, Pageable pageable) {
+        Page<BookDto> page = bookService.findAll(filter, pageable);
+        return new BookFacetedPageDto(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), bookService.getFacets(filter));
+    }
+
+    @Operation(summary = "Scroll through books with a keyset cursor",
+            description = "Fetches the next slice of books after the given opaque cursor. "
+                    + "Omit 'after' to start from the beginning and pass the returned "
+                    + "'nextCursor' to continue. Sorting uses the same 'sort' format as the "
+                    + "paginated listing, the book id is always used as a tie-breaker. "
+                    + "No total count is computed. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/scroll")
+    public CursorSliceDto<BookDto> scroll(
+            @Parameter(description = "Cursor returned by the previous slice")
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        return bookService.scroll(after, pageable);
+    }
+
+    @Operation(summary = "Full-text search for books",
+            description = "Searches book titles, authors, descriptions and ISBNs. "
+                    + "Results are ranked by relevance and tolerate small typos. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/search")
+    public Page<BookDto> search(
+            @Parameter(description = "Search query", required = true)
+            @RequestParam("q") String query,
+            Pageable pageable) {
+        return bookSearchService.search(query, pageable);
+    }
+
+    @Operation(summary = "Get best-selling books",
+            description = "Returns up to 'limit' books ranked by copies sold over the last "
+                    + "DAY, WEEK or MONTH, optionally restricted to one category. Sales are "
+                    + "counted in memory per hour as orders are placed and the ranking is "
+                    + "refreshed every few seconds. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/bestsellers")
+    public List<BestsellerDto> getBestsellers(
+            @Parameter(description = "Category ID to restrict the ranking to")
+            @RequestParam(name = "category", required = false) Long categoryId,
+            @Parameter(description = "Sales window: DAY, WEEK or MONTH")
+            @RequestParam(defaultValue = "WEEK") BestsellerWindow window,
+            @Parameter(description = "Maximum number of books")
+            @RequestParam(defaultValue = "10") int limit) {
+        return bestsellerService.getBestsellers(categoryId, window, limit);
+    }
+
+    @Operation(summary = "Export the whole catalog",
+            description = "Streams every book as NDJSON (one JSON object per line) or as a "
+                    + "gzip-compressed CSV file with the same columns the import accepts. "
+                    + "Rows are written while they are read from the database, so the "
+                    + "response starts immediately regardless of catalog size. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @Parameter(description = "Export format: NDJSON or CSV")
+            @RequestParam(defaultValue = "NDJSON") BookExportFormat format) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (format == BookExportFormat.CSV) {
+            response.contentType(MediaType.valueOf("application/gzip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("books.csv.gz").build().toString());
+        } else {
+            response.contentType(MediaType.APPLICATION_NDJSON);
+        }
+        return response.body(output -> bookExportService.exportBooks(output, format));
     }
 
     @Operation(summary = "Get book by ID",
             description = "Fetches a book from the system using its unique identifier. "
+                    + "The response carries an ETag derived from the book version, "
+                    + "a matching 'If-None-Match' header returns 304 Not Modified. "
                     + "Only users with 'USER' authority can access this endpoint.")
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @GetMapping("/{id}")
     public BookDto getBookById(
+            @Parameter(description = "ID book", required = true)
+            @PathVariable Long id,
+            WebRequest request) {
+        BookDto book = bookService.getBookById(id);
+        if (request.checkNotModified(String.valueOf(book.getVersion()))) {
+            return null;
+        }
+        return book;
+    }
+
+    @Operation(summary = "Get stock of a book",
+            description = "Returns the number of copies of a book available for ordering. "
+                    + "A null stock quantity means the book's stock isn't tracked and "
+                    + "orders for it are never limited. "
+                    + "Only users with 'USER' authority can access this endpoint.")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/{id}/stock")
+    public BookStockDto getStock(
             @Parameter(description = "ID book", required = true)
             @PathVariable Long id) {
-        return bookService.getBookById(id);
+        return bookService.getStock(id);
+    }
+
+    @Operation(summary = "Adjust stock of a book",
+            description = "Adds 'delta' copies to the stock of a book, or removes them when "
+                    + "'delta' is negative, and starts tracking stock for books that "
+                    + "aren't tracked yet. The change is applied atomically next to "
+                    + "concurrent checkouts, which reserve stock as orders are placed. "
+                    + "Returns 409 if the stock would drop below zero. "
+                    + "Only users with 'ADMIN' authority can perform this action.")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PatchMapping("/{id}/stock")
+    public BookStockDto adjustStock(
+            @Parameter(description = "ID book", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody BookStockAdjustmentDto adjustmentDto) {
+        return bookService.adjustStock(id, adjustmentDto);
+    }
+
+    @Operation(summary = "Get books frequently bought together with a book",
+            description = "Returns up to 'limit' books that most often appear in the same "
+                    + "orders as the given book, most frequent first. Answered from an "
+                    + "in-memory model that is updated as orders are placed. "
+                    + "Only users with 'USER' authority can access this endpoint.")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/{id}/related")
+    public List<BookDto> getRelatedBooks(
+            @Parameter(description = "ID book", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Maximum number of related books")
+            @RequestParam(defaultValue = "10") int limit) {
+        return recommendationService.getRelatedBooks(id, limit);
+    }
+
+    @Operation(summary = "Rebuild the related books model",
+            description = "Recounts which books are bought together from the whole order "
+                    + "history in parallel and swaps the result in. Orders placed while the "
+                    + "rebuild runs are kept. "
+                    + "Only users with 'ADMIN' authority can perform this operation.")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/related/rebuild")
+    public RelatedBooksModelReportDto rebuildRelatedBooks() {
+        return recommendationService.rebuild();
+    }
+
+    @Operation(summary = "Get book by ISBN",
+            description = "Fetches a book by its exact ISBN. Unknown ISBNs are answered "
+                    + "from an in-memory filter without querying the database. "
+                    + "Only users with 'USER' authority can access this endpoint.")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/isbn/{isbn}")
+    public BookDto getBookByIsbn(
+            @Parameter(description = "Book ISBN", required = true)
+            @PathVariable String isbn) {
+        return bookService.getBookByIsbn(isbn);
+    }
+
+    @Operation(summary = "Look up books by ISBN in bulk",
+            description = "Returns the books matching any of up to 1000 given ISBNs. "
+                    + "ISBNs that are not carried are skipped without a database query. "
+                    + "Only users with 'USER' authority can access this endpoint.")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @PostMapping("/isbn/batch")
+    public List<BookDto> getBooksByIsbns(
+            @RequestBody @Valid BookIsbnLookupRequestDto requestDto) {
+        return bookService.getBooksByIsbns(requestDto.getIsbns());
+    }
+
+    @Operation(summary = "Get books by IDs in bulk",
+            description = "Returns up to 200 books in the order of the given IDs, "
+                    + "served from the book cache where possible and loaded in one query "
+                    + "otherwise. IDs that match no book are listed in 'missingIds'. "
+                    + "Only users with 'USER' authority can access this endpoint.")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @PostMapping("/batch")
+    public BookBatchResponseDto getBooksByIds(@RequestBody @Valid BookBatchRequestDto requestDto) {
+        return bookService.getBooksByIds(requestDto.getIds());
     }
 
     @Operation(summary = "Create a new book",
@@ -71,6 +294,50 @@ public class BookController {
         return bookService.createBook(bookDto);
     }
 
+    @Operation(summary = "Bulk import books",
+            description = "Streams books from a CSV (with a header row containing title, author, "
+                    + "isbn, price and optionally description, coverImage and categoryIds "
+                    + "separated by ';') or NDJSON body. Rows are validated like a single book "
+                    + "and written in JDBC batches. Invalid rows are reported individually "
+                    + "without aborting the import. "
+                    + "Only users with 'ADMIN' authority can perform this operation."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public BookImportResultDto importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        BookImportFormat format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? BookImportFormat.CSV
+                : BookImportFormat.NDJSON;
+        return bookImportService.importBooks(body, format);
+    }
+
+    @Operation(summary = "Assign categories to many books",
+            description = "Links every given book to every given category in one set-based "
+                    + "statement. Existing links are kept, unknown or deleted books are "
+                    + "skipped. Returns the number of links created. "
+                    + "Only users with 'ADMIN' authority can perform this operation."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/categories/assign")
+    public BookCategoryAssignmentResultDto assignCategories(
+            @RequestBody @Valid BookCategoryAssignmentRequestDto requestDto) {
+        return bookService.assignCategories(requestDto);
+    }
+
+    @Operation(summary = "Unassign categories from many books",
+            description = "Removes the links between the given books and categories in one "
+                    + "set-based statement. Returns the number of links removed. "
+                    + "Only users with 'ADMIN' authority can perform this operation."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/categories/unassign")
+    public BookCategoryAssignmentResultDto unassignCategories(
+            @RequestBody @Valid BookCategoryAssignmentRequestDto requestDto) {
+        return bookService.unassignCategories(requestDto);
+    }
+
     @Operation(summary = "Update an existing book",
             description = "Updates an existing book identified by the given ID. "
                     + "Only users with 'ADMIN' authority can perform this operation. "
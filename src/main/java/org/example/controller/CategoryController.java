@@ -1,7 +1,11 @@
 package org.example.controller;
 
+import org.example.dto.book.BookDto;
 import org.example.dto.category.BookDtoWithoutCategoryIds;
+import org.example.dto.category.CategoryBooksQueryDto;
 import org.example.dto.category.CategoryDto;
+import org.example.dto.category.CategoryIndexReportDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.service.category.CategoryService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,9 +13,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,8 +23,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Category", description = "Provides endpoints for managing book categories")
 @RequiredArgsConstructor
@@ -57,13 +64,33 @@ public class CategoryController {
         return categoryService.findAll(pageable);
     }
 
+    @Operation(
+            summary = "Scroll through categories with a keyset cursor",
+            description = "Fetches the next slice of categories after the given opaque cursor. "
+                    + "Omit 'after' to start from the beginning and pass the returned "
+                    + "'nextCursor' to continue. No total count is computed."
+                    + " Only users with the 'USER' authority have access to this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/scroll")
+    public CursorSliceDto<CategoryDto> scroll(@RequestParam(required = false) String after,
+                                              Pageable pageable) {
+        return categoryService.scroll(after, pageable);
+    }
+
     @Operation(summary = "Get category by ID",
             description = "Allows users with 'USER' authority to retrieve a category by its ID."
+                    + " The response carries an ETag derived from the category version,"
+                    + " a matching 'If-None-Match' header returns 304 Not Modified."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @GetMapping("/{id}")
-    public CategoryDto getCategoryById(@PathVariable Long id) {
-        return categoryService.getById(id);
+    public CategoryDto getCategoryById(@PathVariable Long id, WebRequest request) {
+        CategoryDto category = categoryService.getById(id);
+        if (request.checkNotModified(String.valueOf(category.getVersion()))) {
+            return null;
+        }
+        return category;
     }
 
     @Operation(summary = "Update category by ID",
@@ -87,12 +114,61 @@ public class CategoryController {
     }
 
     @Operation(summary = "Get books by category ID",
-            description = "Allows users with 'USER' authority to retrieve a list of books "
-                    + "that belong to the specified category."
+            description = "Allows users with 'USER' authority to retrieve the books "
+                    + "that belong to the specified category, ordered by book id. "
+                    + "Results are returned in slices of 'size' books; pass the returned "
+                    + "'nextCursor' as 'after' to fetch the next slice."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @GetMapping("/{id}/books")
-    public List<BookDtoWithoutCategoryIds> getBooksByCategoryId(@PathVariable Long id) {
-        return categoryService.getBooksByCategoryId(id);
+    public CursorSliceDto<BookDtoWithoutCategoryIds> getBooksByCategoryId(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        return categoryService.getBooksByCategoryId(id, after, pageable);
+    }
+
+    @Operation(summary = "Stream books by category ID",
+            description = "Allows users with 'USER' authority to stream every book of the "
+                    + "specified category as newline-delimited JSON, ordered by book id."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping(value = "/{id}/books/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamBooksByCategoryId(@PathVariable Long id) {
+        return output -> categoryService.streamBooksByCategoryId(id, output);
+    }
+
+    @Operation(summary = "Find books by category membership",
+            description = "Allows users with 'USER' authority to find books that belong to "
+                    + "every category in 'all', to at least one category in 'any' and to none "
+                    + "of the categories in 'none'. At least one of 'all' or 'any' is required. "
+                    + "Results are ordered by book id."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/books")
+    public Page<BookDto> findBooksByCategories(@Valid CategoryBooksQueryDto query,
+                                               Pageable pageable) {
+        return categoryService.findBooksByCategories(query, pageable);
+    }
+
+    @Operation(summary = "Rebuild the category membership index",
+            description = "Allows users with 'ADMIN' authority to rebuild the in-memory "
+                    + "category membership index from the database."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/index/rebuild")
+    public CategoryIndexReportDto rebuildIndex() {
+        return categoryService.rebuildIndex();
+    }
+
+    @Operation(summary = "Verify the category membership index",
+            description = "Allows users with 'ADMIN' authority to compare the in-memory "
+                    + "category membership index with the database. Categories that are "
+                    + "out of sync are reported and reloaded."
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/index/verify")
+    public CategoryIndexReportDto verifyIndex() {
+        return categoryService.verifyIndex();
     }
 }
@@ -1,18 +1,26 @@
 package org.example.controller;
 
+import org.example.dto.order.OrderCommandDto;
 import org.example.dto.order.OrderRequestDto;
 import org.example.dto.order.OrderResponseDto;
 import org.example.dto.order.OrderUpdateDto;
 import org.example.dto.orderItem.OrderItemResponseDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.model.User;
+import org.example.service.order.IdempotencyKeyStore;
+import org.example.service.order.OrderCommandNotifier;
 import org.example.service.order.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,9 +28,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Tag(name = "Order", description = "Endpoints for managing customer orders and purchases")
 @RequiredArgsConstructor
@@ -30,6 +42,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/orders")
 public class OrderController {
     private final OrderService orderService;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final OrderCommandNotifier orderCommandNotifier;
 
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
@@ -38,14 +52,73 @@ public class OrderController {
                     + "The user is identified through their authentication details. "
                     + "Only users with 'USER' authority can perform this action. "
                     + "Upon successful order placement, an order response is returned "
-                    + "with the details of the order."
+                    + "with the details of the order. Stock of the ordered books is "
+                    + "reserved as part of the order, if any book doesn't have enough "
+                    + "copies left no order is created and 409 is returned. "
+                    + "Send an 'Idempotency-Key' header to make retries safe: a repeated "
+                    + "request with the same key returns the original order instead of "
+                    + "placing a new one, concurrent duplicates wait for the first one to "
+                    + "finish, and reusing a key for a different request returns 422."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @PostMapping
     public OrderResponseDto createOrder(Authentication authentication,
+                                        @RequestHeader(name = "Idempotency-Key",
+                                                required = false) String idempotencyKey,
                                         @Valid @RequestBody OrderRequestDto orderRequestDto) {
         User user = (User) authentication.getPrincipal();
-        return orderService.createOrder(user.getId(), orderRequestDto);
+        return idempotencyKeyStore.execute(user.getId(), idempotencyKey, orderRequestDto,
+                () -> orderService.createOrder(user.getId(), orderRequestDto, idempotencyKey));
+    }
+
+    @Operation(
+            summary = "Submit an order for asynchronous processing",
+            description = "Validates the request and queues an order command for the books in "
+                    + "the authenticated user's shopping cart, returning 202 Accepted with "
+                    + "the command id and a Location to poll. The order is placed by a "
+                    + "background worker, the command then becomes COMPLETED with the order "
+                    + "id, or FAILED with the reason, e.g. an empty cart or missing stock. "
+                    + "Only users with 'USER' authority can perform this action."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @PostMapping("/commands")
+    public ResponseEntity<OrderCommandDto> submitOrder(
+            Authentication authentication,
+            @Valid @RequestBody OrderRequestDto orderRequestDto) {
+        User user = (User) authentication.getPrincipal();
+        OrderCommandDto command = orderService.submitOrder(user.getId(), orderRequestDto);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(command.getId()).toUri())
+                .body(command);
+    }
+
+    @Operation(
+            summary = "Get the status of a submitted order",
+            description = "Returns the status of an order command of the authenticated user: "
+                    + "PENDING, PROCESSING, COMPLETED with the placed order id, or FAILED "
+                    + "with the reason. Only users with 'USER' authority can access this."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/commands/{id}")
+    public OrderCommandDto getOrderCommand(Authentication authentication, @PathVariable Long id) {
+        User user = (User) authentication.getPrincipal();
+        return orderService.getOrderCommand(user.getId(), id);
+    }
+
+    @Operation(
+            summary = "Subscribe to the status of a submitted order",
+            description = "Streams server-sent 'status' events for an order command of the "
+                    + "authenticated user, starting with the current status, and closes the "
+                    + "stream once the command is COMPLETED or FAILED. "
+                    + "Only users with 'USER' authority can access this."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping(value = "/commands/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToOrderCommand(Authentication authentication,
+                                              @PathVariable Long id) {
+        User user = (User) authentication.getPrincipal();
+        return orderCommandNotifier.subscribe(orderService.getOrderCommand(user.getId(), id));
     }
 
     @Operation(
@@ -65,17 +138,42 @@ public class OrderController {
         return orderService.getUserOrderHistory(user.getId(), pageable);
     }
 
+    @Operation(
+            summary = "Scroll through order history with a keyset cursor",
+            description = "Fetches the next slice of the authenticated user's orders, newest "
+                    + "first, after the given opaque cursor. Omit 'after' to start from the "
+                    + "latest order and pass the returned 'nextCursor' to continue. Unlike "
+                    + "the paginated history the cost doesn't grow with the page number "
+                    + "and no total count is computed. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/scroll")
+    public CursorSliceDto<OrderResponseDto> scrollUserOrderHistory(
+            Authentication authentication,
+            @Parameter(description = "Cursor returned by the previous slice")
+            @RequestParam(required = false) String after,
+            Pageable pageable) {
+        User user = (User) authentication.getPrincipal();
+        return orderService.scrollUserOrderHistory(user.getId(), after, pageable);
+    }
+
     @Operation(
             summary = "Update order status",
             description = "Allows an admin to update the status of an order. "
+                    + "Send 'If-Match' with the order version to update it only if the "
+                    + "order hasn't been modified since, otherwise 412 is returned. "
                     + "Only users with 'ADMIN' authority can perform this action."
     )
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     @PatchMapping("{id}")
     public OrderUpdateDto updateOrderStatus(Authentication authentication, @PathVariable Long id,
+                                            @RequestHeader(name = HttpHeaders.IF_MATCH,
+                                                    required = false) String ifMatch,
                                             @Valid @RequestBody OrderUpdateDto updateDto) {
         User user = (User) authentication.getPrincipal();
-        return orderService.updateOrderStatus(user.getId(), id, updateDto);
+        return orderService.updateOrderStatus(user.getId(), id, updateDto,
+                EntityTags.expectedVersion(ifMatch));
     }
 
     @Operation(
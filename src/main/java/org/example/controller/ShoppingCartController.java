@@ -1,5 +1,6 @@
 package org.example.controller;
 
+import org.example.dto.cartItem.CartBatchRequestDto;
 import org.example.dto.cartItem.CartItemRequestDto;
 import org.example.dto.cartItem.CartItemUpdateDto;
 import org.example.dto.shoppingcart.ShoppingCartDto;
@@ -10,7 +11,9 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,44 +22,99 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Shopping Cart", description = "Provides endpoints for managing shopping carts")
 @RequiredArgsConstructor
 @RequestMapping("/cart")
 @RestController
 public class ShoppingCartController {
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RETURN_MINIMAL = "return=minimal";
+
     private final ShoppingCartService shoppingCartService;
 
     @Operation(
             summary = "Get shopping cart of the authenticated user",
             description = "Retrieves the shopping cart of the currently authenticated user, "
                     + "using their authentication details to fetch the cart. "
+                    + "The response carries an ETag derived from the cart version, "
+                    + "a matching 'If-None-Match' header returns 304 Not Modified. "
                     + "Only users with 'USER' authority can access this endpoint."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @GetMapping
-    public ShoppingCartDto getByUserId(Authentication authentication) {
+    public ShoppingCartDto getByUserId(Authentication authentication, WebRequest request) {
         User user = (User) authentication.getPrincipal();
-        return shoppingCartService.getByUserId(user.getId());
+        ShoppingCartDto shoppingCart = shoppingCartService.getByUserId(user.getId());
+        if (request.checkNotModified(String.valueOf(shoppingCart.getVersion()))) {
+            return null;
+        }
+        return shoppingCart;
     }
 
-    @ResponseStatus(HttpStatus.CREATED)
     @Operation(
             summary = "Add item to shopping cart",
             description = "Adds a specified item to the shopping cart of "
-                    + "the currently authenticated user. "
+                    + "the currently authenticated user. Adding a book that is already "
+                    + "in the cart increases its quantity. "
                     + "The user is identified via their authentication details. "
+                    + "Send 'Prefer: return=minimal' to skip building the cart in the "
+                    + "response, which is then 204 No Content. "
+                    + "Send 'If-Match' with the cart ETag to apply the change only if the "
+                    + "cart hasn't been modified since, otherwise 412 is returned. "
                     + "Only users with 'USER' authority can access this endpoint."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @PostMapping
-    public ShoppingCartDto save(Authentication authentication,
-                                @Valid @RequestBody CartItemRequestDto requestDto) {
+    public ResponseEntity<ShoppingCartDto> save(
+            Authentication authentication,
+            @Parameter(description = "'return=minimal' to omit the cart from the response")
+            @RequestHeader(name = PREFER, required = false) String prefer,
+            @Parameter(description = "Cart ETag from a previous response, the change is "
+                    + "rejected with 412 if the cart has been modified since")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CartItemRequestDto requestDto) {
+        User user = (User) authentication.getPrincipal();
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
+        if (prefer != null && prefer.contains(RETURN_MINIMAL)) {
+            shoppingCartService.addItem(user.getId(), requestDto, expectedVersion);
+            return ResponseEntity.noContent()
+                    .header(PREFERENCE_APPLIED, RETURN_MINIMAL)
+                    .build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(shoppingCartService.save(user.getId(), requestDto, expectedVersion));
+    }
+
+    @Operation(
+            summary = "Apply several cart changes at once",
+            description = "Applies a list of ADD (bookId, quantity), UPDATE (cartItemId, "
+                    + "quantity) and REMOVE (cartItemId) operations to the authenticated "
+                    + "user's shopping cart in one transaction and returns the resulting "
+                    + "cart. Operations run in the given order, consecutive operations of "
+                    + "the same kind are applied together. If any book or cart item is not "
+                    + "found nothing is changed. "
+                    + "Send 'If-Match' with the cart ETag to apply the batch only if the "
+                    + "cart hasn't been modified since, otherwise 412 is returned. "
+                    + "Only users with 'USER' authority can access this endpoint."
+    )
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @PostMapping("/batch")
+    public ShoppingCartDto applyBatch(
+            Authentication authentication,
+            @Parameter(description = "Cart ETag from a previous response, the change is "
+                    + "rejected with 412 if the cart has been modified since")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CartBatchRequestDto requestDto) {
         User user = (User) authentication.getPrincipal();
-        return shoppingCartService.save(user.getId(), requestDto);
+        return shoppingCartService.applyBatch(user.getId(), requestDto,
+                EntityTags.expectedVersion(ifMatch));
     }
 
     @Operation(
@@ -64,6 +122,8 @@ public class ShoppingCartController {
             description = "Updates the quantity or details of an item in the currently "
                     + "authenticated user's shopping cart. "
                     + "The user is identified via their authentication details. "
+                    + "Send 'If-Match' with the cart ETag to apply the change only if the "
+                    + "cart hasn't been modified since, otherwise 412 is returned. "
                     + "Only users with 'USER' authority can access this endpoint."
     )
     @PreAuthorize("hasAuthority('ROLE_USER')")
@@ -72,9 +132,12 @@ public class ShoppingCartController {
                                   @Parameter(
                                           description = "ID of the cart item to be updated")
                                   @PathVariable Long cartItemId,
+                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                  String ifMatch,
                                   @RequestBody @Valid CartItemUpdateDto updateDto) {
         User user = (User) authentication.getPrincipal();
-        return shoppingCartService.update(user.getId(), cartItemId, updateDto);
+        return shoppingCartService.update(user.getId(), cartItemId, updateDto,
+                EntityTags.expectedVersion(ifMatch));
     }
 
     @Operation(
@@ -83,13 +146,18 @@ public class ShoppingCartController {
                     + "The user is identified through their authentication details. "
                     + "Upon successful removal, the response contains "
                     + "no content (HTTP status 204). "
+                    + "Send 'If-Match' with the cart ETag to remove the item only if the "
+                    + "cart hasn't been modified since, otherwise 412 is returned. "
                     + "Only users with 'USER' authority can access this endpoint."
     )
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/items/{cartItemId}")
     @PreAuthorize("hasAuthority('ROLE_USER')")
-    public void deleteById(Authentication authentication, @PathVariable Long cartItemId) {
+    public void deleteById(Authentication authentication, @PathVariable Long cartItemId,
+                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                           String ifMatch) {
         User user = (User) authentication.getPrincipal();
-        shoppingCartService.deleteById(user.getId(), cartItemId);
+        shoppingCartService.deleteById(user.getId(), cartItemId,
+                EntityTags.expectedVersion(ifMatch));
     }
 }
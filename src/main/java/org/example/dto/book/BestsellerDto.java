@@ -0,0 +1,14 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestsellerDto {
+    private BookDto book;
+
+    private long sold;
+}
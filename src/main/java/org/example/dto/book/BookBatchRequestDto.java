@@ -0,0 +1,15 @@
+package org.example.dto.book;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BookBatchRequestDto {
+
+    @NotEmpty(message = "Book ids are required")
+    @Size(max = 200, message = "At most 200 books can be fetched at once")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,15 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchResponseDto {
+    private List<BookDto> books;
+
+    private List<Long> missingIds;
+}
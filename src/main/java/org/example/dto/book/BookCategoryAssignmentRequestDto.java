@@ -0,0 +1,16 @@
+package org.example.dto.book;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BookCategoryAssignmentRequestDto {
+
+    @NotEmpty(message = "Book ids are required")
+    private List<@NotNull Long> bookIds;
+
+    @NotEmpty(message = "Category ids are required")
+    private List<@NotNull Long> categoryIds;
+}
@@ -0,0 +1,12 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCategoryAssignmentResultDto {
+    private long affectedRows;
+}
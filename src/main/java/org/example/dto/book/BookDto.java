@@ -1,9 +1,13 @@
 package org.example.dto.book;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookDto {
     private Long id;
     private String title;
@@ -12,4 +16,5 @@ public class BookDto {
     private BigDecimal price;
     private String description;
     private String coverImage;
+    private Long version;
 }
@@ -0,0 +1,15 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetsDto {
+    private List<CategoryFacetDto> categories;
+
+    private List<PriceBucketFacetDto> priceBuckets;
+}
@@ -0,0 +1,23 @@
+package org.example.dto.book;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class BookFilterDto {
+    @DecimalMin(value = "0.0", message = "Minimum price must be positive or zero")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", message = "Maximum price must be positive or zero")
+    private BigDecimal maxPrice;
+
+    private String author;
+
+    private List<Long> categoryIds;
+
+    private CategoryMatch categoryMatch = CategoryMatch.ANY;
+
+    private String titlePrefix;
+}
@@ -0,0 +1,17 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportErrorDto {
+    private long row;
+
+    private String isbn;
+
+    private List<String> messages;
+}
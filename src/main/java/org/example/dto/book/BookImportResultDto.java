@@ -0,0 +1,18 @@
+package org.example.dto.book;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BookImportResultDto {
+    private long totalRows;
+
+    private long importedRows;
+
+    private long failedRows;
+
+    private boolean errorsTruncated;
+
+    private List<BookImportErrorDto> errors = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package org.example.dto.book;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BookIsbnLookupRequestDto {
+
+    @NotEmpty(message = "ISBNs are required")
+    @Size(max = 1000, message = "At most 1000 ISBNs can be looked up at once")
+    private List<@NotBlank String> isbns;
+}
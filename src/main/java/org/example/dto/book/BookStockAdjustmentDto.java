@@ -0,0 +1,10 @@
+package org.example.dto.book;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BookStockAdjustmentDto {
+    @NotNull
+    private Integer delta;
+}
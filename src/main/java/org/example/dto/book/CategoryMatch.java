@@ -0,0 +1,6 @@
+package org.example.dto.book;
+
+public enum CategoryMatch {
+    ANY,
+    ALL
+}
@@ -0,0 +1,17 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucketFacetDto {
+    private BigDecimal from;
+
+    private BigDecimal to;
+
+    private long count;
+}
@@ -0,0 +1,14 @@
+package org.example.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedBooksModelReportDto {
+    private int books;
+
+    private long lastOrderId;
+}
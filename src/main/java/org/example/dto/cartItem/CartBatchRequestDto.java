@@ -0,0 +1,15 @@
+package org.example.dto.cartItem;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CartBatchRequestDto {
+    @NotEmpty(message = "Cart operations are required")
+    @Size(max = 200, message = "At most 200 cart operations can be applied at once")
+    private List<@NotNull @Valid CartItemBatchOperationDto> operations;
+}
@@ -0,0 +1,34 @@
+package org.example.dto.cartItem;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class CartItemBatchOperationDto {
+    @NotNull
+    private CartItemOperation op;
+
+    @Positive
+    private Long bookId;
+
+    @Positive
+    private Long cartItemId;
+
+    @Positive
+    private Integer quantity;
+
+    @AssertTrue(message = "ADD needs 'bookId' and 'quantity', UPDATE needs 'cartItemId' "
+            + "and 'quantity', REMOVE needs 'cartItemId'")
+    public boolean isComplete() {
+        if (op == null) {
+            return true;
+        }
+        return switch (op) {
+            case ADD -> bookId != null && quantity != null;
+            case UPDATE -> cartItemId != null && quantity != null;
+            case REMOVE -> cartItemId != null;
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.dto.cartItem;
+
+public enum CartItemOperation {
+    ADD,
+    UPDATE,
+    REMOVE
+}
@@ -0,0 +1,24 @@
+package org.example.dto.category;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CategoryBooksQueryDto {
+    @Size(max = 100, message = "At most 100 categories can be required")
+    private List<@NotNull Long> all;
+
+    @Size(max = 100, message = "At most 100 categories can be accepted")
+    private List<@NotNull Long> any;
+
+    @Size(max = 100, message = "At most 100 categories can be excluded")
+    private List<@NotNull Long> none;
+
+    @AssertTrue(message = "At least one of 'all' or 'any' categories is required")
+    public boolean isBounded() {
+        return all != null && !all.isEmpty() || any != null && !any.isEmpty();
+    }
+}
@@ -9,4 +9,6 @@ public class CategoryDto {
     private String name;
 
     private String description;
+
+    private Long version;
 }
@@ -0,0 +1,17 @@
+package org.example.dto.category;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryIndexReportDto {
+    private int categories;
+
+    private long links;
+
+    private List<Long> repairedCategoryIds;
+}
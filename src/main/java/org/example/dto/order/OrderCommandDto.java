@@ -0,0 +1,11 @@
+package org.example.dto.order;
+
+import lombok.Data;
+
+@Data
+public class OrderCommandDto {
+    private Long id;
+    private String status;
+    private Long orderId;
+    private String error;
+}
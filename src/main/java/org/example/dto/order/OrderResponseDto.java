@@ -14,4 +14,5 @@ public class OrderResponseDto {
     private LocalDateTime orderDate;
     private BigDecimal total;
     private String status;
+    private Long version;
 }
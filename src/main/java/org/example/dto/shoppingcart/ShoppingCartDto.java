@@ -10,4 +10,6 @@ public class ShoppingCartDto {
     private Long userId;
 
     private Set<ShoppingCartItemDto> cartItems;
+
+    private Long version;
 }
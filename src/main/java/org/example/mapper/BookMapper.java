@@ -5,6 +5,7 @@ import org.example.dto.book.CreateBookRequestDto;
 import org.example.dto.category.BookDtoWithoutCategoryIds;
 import org.example.model.Book;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import java.util.List;
 
@@ -12,14 +13,23 @@ import java.util.List;
 public interface BookMapper {
     BookDto toDto(Book book);
 
+    @Mapping(target = "stockQuantity", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Book toModel(CreateBookRequestDto requestDto);
 
+    @Mapping(target = "stockQuantity", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Book toEntity(CreateBookRequestDto bookDto);
 
     BookDtoWithoutCategoryIds toDtoWithoutCategories(Book book);
 
     List<BookDtoWithoutCategoryIds> toDtoWithoutCategories(List<Book> books);
 
+    @Mapping(target = "stockQuantity", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateBookFromDto(
             CreateBookRequestDto dto, @MappingTarget Book book);
 }
@@ -6,6 +6,7 @@ import org.example.model.CartItem;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.example.model.ShoppingCart;
+import org.example.service.shoppingcart.WriteBehindCartStore;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -19,11 +20,19 @@ public interface CartItemMapper {
 
     @Mapping(target = "userId", source = "cartItem.shoppingCart.user.id")
     @Mapping(target = "cartItems", source = "cartItem.shoppingCart.cartItems")
+    @Mapping(target = "version", source = "cartItem.shoppingCart.version")
     ShoppingCartDto toResponseDto(CartItem cartItem);
 
     @Mapping(source = "user.id", target = "userId")
     ShoppingCartDto toDto(ShoppingCart shoppingCart);
 
+    @Mapping(target = "id", source = "itemId")
+    ShoppingCartItemDto toItemDto(WriteBehindCartStore.CartLine line);
+
+    @Mapping(target = "id", source = "userId")
+    @Mapping(target = "cartItems", source = "lines")
+    ShoppingCartDto toDto(WriteBehindCartStore.CartSnapshot snapshot);
+
     @Named("mapCartItems")
     default Set<ShoppingCartItemDto> mapCartItems(Set<CartItem> cartItems) {
         return cartItems.stream()
@@ -3,13 +3,18 @@ package org.example.mapper;
 import org.example.dto.category.CategoryDto;
 import org.example.model.Category;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface CategoryMapper {
     CategoryDto toDto(Category category);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Category toEntity(CategoryDto categoryDTO);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateFromDto(CategoryDto dto, @MappingTarget Category category);
 }
@@ -3,6 +3,7 @@ package org.example.mapper;
 import org.example.dto.orderItem.OrderItemResponseDto;
 import org.example.model.CartItem;
 import org.example.model.OrderItem;
+import org.example.repository.OrderItemView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,6 +12,8 @@ public interface OrderItemMapper {
     @Mapping(source = "book.id", target = "bookId")
     OrderItemResponseDto toDto(OrderItem orderItem);
 
+    OrderItemResponseDto toDto(OrderItemView orderItemView);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "price", source = "book.price")
     OrderItem cartItemToOrderItem(CartItem cartItem);
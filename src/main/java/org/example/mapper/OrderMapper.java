@@ -1,9 +1,11 @@
 package org.example.mapper;
 
 import org.example.dto.order.OrderResponseDto;
+import org.example.dto.orderItem.OrderItemResponseDto;
 import org.example.model.CartItem;
 import org.example.model.Order;
 import org.example.model.ShoppingCart;
+import org.example.repository.OrderSummaryView;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Set;
@@ -14,7 +16,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = OrderItemMapper.class)
 public interface OrderMapper {
     @Mapping(target = "orderDate", dateFormat = "yyyy-MM-dd HH")
     @Mapping(target = "userId", source = "user.id")
@@ -22,7 +24,11 @@ public interface OrderMapper {
 
     List<OrderResponseDto> toOrderDtoList(List<Order> orders);
 
+    OrderResponseDto toOrderDto(OrderSummaryView summary,
+                                List<OrderItemResponseDto> orderItems);
+
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "total", source = "cart.cartItems", qualifiedByName = "total")
     @Mapping(target = "orderItems", source = "cart.cartItems")
     @Mapping(target = "user", source = "cart.user")
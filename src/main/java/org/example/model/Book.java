@@ -9,7 +9,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.EqualsAndHashCode;
@@ -23,7 +25,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Getter
 @Setter
 @Entity
-@SQLDelete(sql = "UPDATE books SET is_deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE books SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP "
+        + "WHERE id = ? AND version = ?")
 @SQLRestriction("is_deleted = false")
 @Table(name = "books")
 public class Book {
@@ -49,6 +52,14 @@ public class Book {
     @Column(nullable = false)
     private boolean isDeleted = false;
 
+    private LocalDateTime deletedAt;
+
+    @Column(insertable = false, updatable = false)
+    private Integer stockQuantity;
+
+    @Version
+    private Long version;
+
     @ManyToMany
     @JoinTable(
             name = "books_categories",
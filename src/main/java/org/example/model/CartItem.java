@@ -8,13 +8,16 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = @UniqueConstraint(
+        name = "uk_cart_items_cart_book", columnNames = {"shopping_cart_id", "book_id"}))
 public class CartItem {
 
     @Id
@@ -30,4 +33,7 @@ public class CartItem {
     private Book book;
 
     private int quantity;
+
+    @Version
+    private Long version;
 }
@@ -6,6 +6,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.SQLDelete;
@@ -14,7 +16,8 @@ import org.hibernate.annotations.SQLRestriction;
 @Setter
 @Getter
 @Entity
-@SQLDelete(sql = "UPDATE categories SET is_deleted = true WHERE id =?")
+@SQLDelete(sql = "UPDATE categories SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP "
+        + "WHERE id = ? AND version = ?")
 @SQLRestriction("is_deleted = false")
 @Table(name = "categories")
 public class Category {
@@ -28,4 +31,9 @@ public class Category {
     private String description;
 
     private boolean isDeleted = false;
+
+    private LocalDateTime deletedAt;
+
+    @Version
+    private Long version;
 }
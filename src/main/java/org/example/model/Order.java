@@ -11,7 +11,8 @@ import lombok.Setter;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
-@SQLDelete(sql = "UPDATE orders SET is_deleted = true where id =?")
+@SQLDelete(sql = "UPDATE orders SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP "
+        + "WHERE id = ? AND version = ?")
 @SQLRestriction("is_deleted = false")
 @Entity
 @Getter
@@ -43,4 +44,9 @@ public class Order {
     private Set<OrderItem> orderItems = new HashSet<>();
 
     private boolean isDeleted = false;
+
+    private LocalDateTime deletedAt;
+
+    @Version
+    private Long version;
 }
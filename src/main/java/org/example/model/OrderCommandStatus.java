@@ -0,0 +1,8 @@
+package org.example.model;
+
+public enum OrderCommandStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
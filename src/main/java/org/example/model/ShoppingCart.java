@@ -10,6 +10,8 @@ import jakarta.persistence.MapsId;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Getter;
@@ -17,7 +19,8 @@ import lombok.Setter;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
-@SQLDelete(sql = "UPDATE shopping_carts SET is_deleted = true WHERE id =?")
+@SQLDelete(sql = "UPDATE shopping_carts SET is_deleted = true, deleted_at = CURRENT_TIMESTAMP "
+        + "WHERE user_id = ? AND version = ?")
 @SQLRestriction("is_deleted = false")
 @Getter
 @Setter
@@ -35,6 +38,14 @@ public class ShoppingCart {
     @Column(nullable = false)
     private boolean isDeleted = false;
 
+    private LocalDateTime deletedAt;
+
+    @Column(nullable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "shoppingCart", cascade = CascadeType.PERSIST,
             orphanRemoval = true)
     private Set<CartItem> cartItems = new HashSet<>();
@@ -0,0 +1,7 @@
+package org.example.repository;
+
+public interface BookCategoryLink {
+    Long getBookId();
+
+    Long getCategoryId();
+}
@@ -1,11 +1,141 @@
 package org.example.repository;
 
+import org.example.config.CacheConfig;
+import org.example.dto.book.BookDto;
+import org.example.dto.book.BookStockDto;
+import org.example.dto.category.BookDtoWithoutCategoryIds;
 import org.example.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
     List<Book> findByCategoriesId(Long categoryId);
+
+    @Query(value = """
+            SELECT new org.example.dto.book.BookDto(
+                b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage,
+                b.version)
+            FROM Book b""",
+            countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookDto> findAllDtos(Pageable pageable);
+
+    @Query("""
+            SELECT new org.example.dto.category.BookDtoWithoutCategoryIds(
+                b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage)
+            FROM Book b JOIN b.categories c
+            WHERE c.id = :categoryId AND b.id > :afterId
+            ORDER BY b.id""")
+    List<BookDtoWithoutCategoryIds> findDtosByCategoryIdAfter(@Param("categoryId") Long categoryId,
+                                                              @Param("afterId") Long afterId,
+                                                              Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new org.example.dto.category.BookDtoWithoutCategoryIds(
+                b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage)
+            FROM Book b JOIN b.categories c
+            WHERE c.id = :categoryId
+            ORDER BY b.id""")
+    Stream<BookDtoWithoutCategoryIds> streamDtosByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("""
+            SELECT new org.example.dto.book.BookDto(
+                b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage,
+                b.version)
+            FROM Book b
+            WHERE b.isbn = :isbn""")
+    Optional<BookDto> findDtoByIsbn(@Param("isbn") String isbn);
+
+    @Query("""
+            SELECT new org.example.dto.book.BookDto(
+                b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage,
+                b.version)
+            FROM Book b
+            WHERE b.isbn IN :isbns""")
+    List<BookDto> findDtosByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("""
+            SELECT new org.example.dto.book.BookDto(
+                b.id, b.title, b.author, b.isbn, b.price, b.description, b.coverImage,
+                b.version)
+            FROM Book b
+            WHERE b.id IN :ids
+            ORDER BY b.id""")
+    List<BookDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Cacheable(cacheNames = CacheConfig.BOOK_TITLES, key = "#id", unless = "#result == null")
+    @Query("SELECT b.title FROM Book b WHERE b.id = :id")
+    Optional<String> findCachedTitleById(@Param("id") Long id);
+
+    @Query("""
+            SELECT new org.example.dto.book.BookStockDto(b.id, b.stockQuantity)
+            FROM Book b WHERE b.id = :id""")
+    Optional<BookStockDto> findStockById(@Param("id") Long id);
+
+    Window<Book> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    List<Book> findAllByIdBetween(Long fromId, Long toId);
+
+    @Query("SELECT MAX(b.id) FROM Book b")
+    Long findMaxId();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.isbn FROM Book b")
+    Stream<String> streamAllIsbns();
+
+    @Query("SELECT b.id AS bookId, c.id AS categoryId FROM Book b JOIN b.categories c "
+            + "WHERE b.id IN :bookIds")
+    List<BookCategoryLink> findCategoryLinks(@Param("bookIds") Collection<Long> bookIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id AS bookId, c.id AS categoryId FROM Book b JOIN b.categories c")
+    Stream<BookCategoryLink> streamAllCategoryLinks();
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id AS bookId, c.id AS categoryId FROM Book b JOIN b.categories c "
+            + "WHERE c.id IN :categoryIds")
+    List<BookCategoryLink> findCategoryLinksByCategoryIds(
+            @Param("categoryIds") Collection<Long> categoryIds);
+
+    @Query("SELECT c.id AS categoryId, COUNT(b.id) AS bookCount, SUM(b.id) AS bookIdSum "
+            + "FROM Book b JOIN b.categories c GROUP BY c.id")
+    List<CategoryBookStats> findCategoryBookStats();
 }
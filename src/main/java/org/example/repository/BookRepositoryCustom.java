@@ -0,0 +1,33 @@
+package org.example.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.example.dto.book.BookDto;
+import org.example.dto.book.CreateBookRequestDto;
+import org.example.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookRepositoryCustom {
+    Set<String> findExistingIsbns(Collection<String> isbns);
+
+    List<Book> insertAll(List<CreateBookRequestDto> books);
+
+    int assignCategories(Collection<Long> bookIds, Collection<Long> categoryIds);
+
+    int unassignCategories(Collection<Long> bookIds, Collection<Long> categoryIds);
+
+    Set<Long> reserveStock(Map<Long, Integer> quantitiesByBookId);
+
+    int adjustStock(Long bookId, int delta);
+
+    Page<BookDto> findAllDtos(Specification<Book> specification, Pageable pageable);
+
+    Map<Long, Long> countByCategory(Specification<Book> specification);
+
+    List<Long> countByPriceBuckets(Specification<Book> specification, List<BigDecimal> boundaries);
+}
@@ -0,0 +1,258 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.book.BookDto;
+import org.example.dto.book.CreateBookRequestDto;
+import org.example.model.Book;
+import org.example.model.Category;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@RequiredArgsConstructor
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    private static final String INSERT_BOOK = """
+            INSERT INTO books (title, author, isbn, price, description, cover_image, is_deleted,
+                               version)
+            VALUES (?, ?, ?, ?, ?, ?, false, 0)""";
+    private static final String INSERT_BOOK_CATEGORY = """
+            INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)""";
+    private static final String ASSIGN_CATEGORIES = """
+            INSERT INTO books_categories (book_id, category_id)
+            SELECT b.id, c.id FROM books b CROSS JOIN categories c
+            WHERE b.id IN (:bookIds) AND c.id IN (:categoryIds)
+              AND b.is_deleted = false AND c.is_deleted = false
+              AND NOT EXISTS (SELECT 1 FROM books_categories bc
+                              WHERE bc.book_id = b.id AND bc.category_id = c.id)""";
+    private static final String UNASSIGN_CATEGORIES = """
+            DELETE FROM books_categories
+            WHERE book_id IN (:bookIds) AND category_id IN (:categoryIds)""";
+    private static final String RESERVE_STOCK = """
+            UPDATE books SET stock_quantity = stock_quantity - ?
+            WHERE id = ? AND is_deleted = false
+              AND (stock_quantity IS NULL OR stock_quantity >= ?)""";
+    private static final String ADJUST_STOCK = """
+            UPDATE books SET stock_quantity = COALESCE(stock_quantity, 0) + ?
+            WHERE id = ? AND is_deleted = false AND COALESCE(stock_quantity, 0) + ? >= 0""";
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT isbn FROM books WHERE isbn IN (:isbns)",
+                Map.of("isbns", isbns), String.class));
+    }
+
+    @Override
+    public List<Book> insertAll(List<CreateBookRequestDto> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CreateBookRequestDto book = books.get(i);
+                ps.setString(1, book.getTitle());
+                ps.setString(2, book.getAuthor());
+                ps.setString(3, book.getIsbn());
+                ps.setBigDecimal(4, book.getPrice());
+                ps.setString(5, book.getDescription());
+                ps.setString(6, book.getCoverImage());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return books.size();
+            }
+        });
+
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, isbn FROM books WHERE isbn IN (:isbns)",
+                Map.of("isbns", books.stream().map(CreateBookRequestDto::getIsbn).toList()),
+                rs -> {
+                    ids.put(rs.getString("isbn"), rs.getLong("id"));
+                });
+
+        List<Book> inserted = new ArrayList<>(books.size());
+        List<Object[]> bookCategories = new ArrayList<>();
+        for (CreateBookRequestDto requestDto : books) {
+            Book book = new Book();
+            book.setId(ids.get(requestDto.getIsbn()));
+            book.setTitle(requestDto.getTitle());
+            book.setAuthor(requestDto.getAuthor());
+            book.setIsbn(requestDto.getIsbn());
+            book.setPrice(requestDto.getPrice());
+            book.setDescription(requestDto.getDescription());
+            book.setCoverImage(requestDto.getCoverImage());
+            inserted.add(book);
+            for (Long categoryId : new HashSet<>(requestDto.getCategoryIds())) {
+                bookCategories.add(new Object[]{book.getId(), categoryId});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOK_CATEGORY, bookCategories);
+        return inserted;
+    }
+
+    @Override
+    public int assignCategories(Collection<Long> bookIds, Collection<Long> categoryIds) {
+        return updateInChunks(ASSIGN_CATEGORIES, bookIds, categoryIds);
+    }
+
+    @Override
+    public int unassignCategories(Collection<Long> bookIds, Collection<Long> categoryIds) {
+        return updateInChunks(UNASSIGN_CATEGORIES, bookIds, categoryIds);
+    }
+
+    @Override
+    public Set<Long> reserveStock(Map<Long, Integer> quantitiesByBookId) {
+        List<Long> bookIds = quantitiesByBookId.keySet().stream().sorted().toList();
+        List<Object[]> reservations = new ArrayList<>(bookIds.size());
+        bookIds.forEach(bookId -> {
+            Integer quantity = quantitiesByBookId.get(bookId);
+            reservations.add(new Object[] {quantity, bookId, quantity});
+        });
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_STOCK, reservations);
+        Set<Long> insufficient = new LinkedHashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                insufficient.add(bookIds.get(i));
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    public int adjustStock(Long bookId, int delta) {
+        return jdbcTemplate.update(ADJUST_STOCK, delta, bookId, delta);
+    }
+
+    @Override
+    public Page<BookDto> findAllDtos(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookDto> query = cb.createQuery(BookDto.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.construct(BookDto.class, book.get("id"), book.get("title"),
+                        book.get("author"), book.get("isbn"), book.get("price"),
+                        book.get("description"), book.get("coverImage"), book.get("version")))
+                .where(toPredicate(specification, book, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+
+        TypedQuery<BookDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> count(specification));
+    }
+
+    @Override
+    public Map<Long, Long> countByCategory(Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Category> category = book.join("categories");
+        query.multiselect(category.get("id"), cb.count(book))
+                .where(toPredicate(specification, book, query, cb))
+                .groupBy(category.get("id"));
+
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, Long.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Long> countByPriceBuckets(Specification<Book> specification,
+                                          List<BigDecimal> boundaries) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+        Expression<BigDecimal> price = book.get("price");
+
+        List<Selection<?>> buckets = new ArrayList<>();
+        for (int i = 0; i <= boundaries.size(); i++) {
+            List<Predicate> range = new ArrayList<>();
+            if (i > 0) {
+                range.add(cb.greaterThanOrEqualTo(price, boundaries.get(i - 1)));
+            }
+            if (i < boundaries.size()) {
+                range.add(cb.lessThan(price, boundaries.get(i)));
+            }
+            buckets.add(cb.sum(cb.<Long>selectCase()
+                    .when(cb.and(range.toArray(Predicate[]::new)), 1L)
+                    .otherwise(0L)));
+        }
+        query.multiselect(buckets).where(toPredicate(specification, book, query, cb));
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        List<Long> counts = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            Number count = (Number) row.get(i);
+            counts.add(count == null ? 0L : count.longValue());
+        }
+        return counts;
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.count(book)).where(toPredicate(specification, book, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate toPredicate(Specification<Book> specification, Root<Book> book,
+                                  CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = specification == null
+                ? null
+                : specification.toPredicate(book, query, cb);
+        return predicate == null ? cb.conjunction() : predicate;
+    }
+
+    private int updateInChunks(String sql, Collection<Long> bookIds, Collection<Long> categoryIds) {
+        List<Long> ids = List.copyOf(new HashSet<>(bookIds));
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST_SIZE) {
+            affected += namedParameterJdbcTemplate.update(sql, Map.of(
+                    "bookIds", ids.subList(from, Math.min(from + MAX_IN_LIST_SIZE, ids.size())),
+                    "categoryIds", categoryIds));
+        }
+        return affected;
+    }
+}
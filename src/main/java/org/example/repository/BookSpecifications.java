@@ -0,0 +1,73 @@
+package org.example.repository;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import org.example.dto.book.CategoryMatch;
+import org.example.model.Book;
+import org.example.model.Category;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+public final class BookSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return (book, query, cb) -> {
+            if (minPrice == null) {
+                return cb.lessThanOrEqualTo(book.get("price"), maxPrice);
+            }
+            if (maxPrice == null) {
+                return cb.greaterThanOrEqualTo(book.get("price"), minPrice);
+            }
+            return cb.between(book.get("price"), minPrice, maxPrice);
+        };
+    }
+
+    public static Specification<Book> authorEquals(String author) {
+        if (!StringUtils.hasText(author)) {
+            return null;
+        }
+        return (book, query, cb) -> cb.equal(book.get("author"), author.trim());
+    }
+
+    public static Specification<Book> titleStartsWith(String prefix) {
+        if (!StringUtils.hasText(prefix)) {
+            return null;
+        }
+        String pattern = prefix.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (book, query, cb) -> cb.like(book.get("title"), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> inCategories(Collection<Long> categoryIds,
+                                                   CategoryMatch match) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        Collection<Long> ids = new HashSet<>(categoryIds);
+        return (book, query, cb) -> {
+            Subquery<Long> matching = query.subquery(Long.class);
+            Root<Book> linked = matching.from(Book.class);
+            Join<Book, Category> category = linked.join("categories");
+            matching.select(linked.get("id"))
+                    .where(category.get("id").in(ids));
+            if (match == CategoryMatch.ALL) {
+                matching.groupBy(linked.get("id"))
+                        .having(cb.equal(cb.countDistinct(category.get("id")), (long) ids.size()));
+            }
+            return book.get("id").in(matching);
+        };
+    }
+}
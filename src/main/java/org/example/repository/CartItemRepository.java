@@ -8,7 +8,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>,
+        CartItemRepositoryCustom {
     Optional<CartItem> findByIdAndShoppingCartId(Long id, Long shoppingCartId);
 
     List<CartItem> findCartItemByShoppingCart(ShoppingCart shoppingCart);
@@ -0,0 +1,15 @@
+package org.example.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface CartItemRepositoryCustom {
+    void addQuantity(Long shoppingCartId, Long bookId, int quantity);
+
+    void addQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId);
+
+    Set<Long> updateQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByItemId);
+
+    int deleteItems(Long shoppingCartId, Collection<Long> itemIds);
+}
@@ -0,0 +1,91 @@
+package org.example.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@RequiredArgsConstructor
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+    private static final String INCREMENT_QUANTITY = """
+            UPDATE cart_items SET quantity = quantity + ?, version = version + 1
+            WHERE shopping_cart_id = ? AND book_id = ?""";
+    private static final String INSERT_ITEM = """
+            INSERT INTO cart_items (shopping_cart_id, book_id, quantity, version)
+            VALUES (?, ?, ?, 0)""";
+    private static final String SET_QUANTITY = """
+            UPDATE cart_items SET quantity = ?, version = version + 1
+            WHERE id = ? AND shopping_cart_id = ?""";
+    private static final String DELETE_ITEMS = """
+            DELETE FROM cart_items
+            WHERE shopping_cart_id = :shoppingCartId AND id IN (:itemIds)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public void addQuantity(Long shoppingCartId, Long bookId, int quantity) {
+        if (jdbcTemplate.update(INCREMENT_QUANTITY, quantity, shoppingCartId, bookId) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_ITEM, shoppingCartId, bookId, quantity);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(INCREMENT_QUANTITY, quantity, shoppingCartId, bookId);
+        }
+    }
+
+    @Override
+    public void addQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
+        }
+        List<Object[]> increments = new ArrayList<>(quantitiesByBookId.size());
+        quantitiesByBookId.forEach((bookId, quantity) ->
+                increments.add(new Object[] {quantity, shoppingCartId, bookId}));
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT_QUANTITY, increments);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] increment = increments.get(i);
+                inserts.add(new Object[] {shoppingCartId, increment[2], increment[0]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM, inserts);
+        }
+    }
+
+    @Override
+    public Set<Long> updateQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByItemId) {
+        List<Long> itemIds = new ArrayList<>(quantitiesByItemId.keySet());
+        List<Object[]> updates = new ArrayList<>(itemIds.size());
+        itemIds.forEach(itemId ->
+                updates.add(new Object[] {quantitiesByItemId.get(itemId), itemId, shoppingCartId}));
+        int[] updated = jdbcTemplate.batchUpdate(SET_QUANTITY, updates);
+        Set<Long> missing = new LinkedHashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(itemIds.get(i));
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public int deleteItems(Long shoppingCartId, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(DELETE_ITEMS, new MapSqlParameterSource()
+                .addValue("shoppingCartId", shoppingCartId)
+                .addValue("itemIds", itemIds));
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.repository;
+
+public interface CategoryBookStats {
+    Long getCategoryId();
+
+    Long getBookCount();
+
+    Long getBookIdSum();
+}
@@ -0,0 +1,7 @@
+package org.example.repository;
+
+public interface OrderBookLink {
+    Long getOrderId();
+
+    Long getBookId();
+}
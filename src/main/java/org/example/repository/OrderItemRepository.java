@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -26,4 +28,20 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     Optional<OrderItem> findByIdAndOrderIdAndUserId(@Param("orderItemId") Long orderItemId,
                                                     @Param("orderId") Long orderId,
                                                     @Param("userId") Long userId);
+
+    @Query(value = """
+            SELECT oi.id AS id, oi.order.id AS orderId, oi.book.id AS bookId,
+                   oi.quantity AS quantity
+            FROM OrderItem oi
+            WHERE oi.order.id IN :orderIds""")
+    List<OrderItemView> findViewsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query(value = """
+            SELECT o.id AS orderId, oi.book.id AS bookId
+            FROM OrderItem oi
+            JOIN oi.order o
+            WHERE o.id BETWEEN :fromId AND :toId
+            ORDER BY o.id""")
+    List<OrderBookLink> findOrderBookLinks(@Param("fromId") Long fromId,
+                                           @Param("toId") Long toId);
 }
@@ -0,0 +1,11 @@
+package org.example.repository;
+
+public interface OrderItemView {
+    Long getId();
+
+    Long getOrderId();
+
+    Long getBookId();
+
+    int getQuantity();
+}
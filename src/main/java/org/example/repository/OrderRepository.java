@@ -1,14 +1,52 @@
 package org.example.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import org.example.model.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @EntityGraph(attributePaths = {"orderItems"})
-    Page<Order> getAllByUserId(Long id, Pageable pageable);
+    @Query(value = """
+            SELECT o.id AS id, o.user.id AS userId, o.orderDate AS orderDate,
+                   o.total AS total, o.status AS status, o.version AS version
+            FROM Order o
+            WHERE o.user.id = :userId""",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<OrderSummaryView> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT o.id AS id, o.user.id AS userId, o.orderDate AS orderDate,
+                   o.total AS total, o.status AS status, o.version AS version
+            FROM Order o
+            WHERE o.user.id = :userId
+            ORDER BY o.orderDate DESC, o.id DESC""")
+    List<OrderSummaryView> findLatestSummariesByUserId(@Param("userId") Long userId,
+                                                       Limit limit);
+
+    @Query("""
+            SELECT o.id AS id, o.user.id AS userId, o.orderDate AS orderDate,
+                   o.total AS total, o.status AS status, o.version AS version
+            FROM Order o
+            WHERE o.user.id = :userId
+              AND (o.orderDate < :beforeDate
+                   OR (o.orderDate = :beforeDate AND o.id < :beforeId))
+            ORDER BY o.orderDate DESC, o.id DESC""")
+    List<OrderSummaryView> findSummariesByUserIdBefore(
+            @Param("userId") Long userId,
+            @Param("beforeDate") LocalDateTime beforeDate,
+            @Param("beforeId") Long beforeId,
+            Limit limit);
+
+    @Query("SELECT MIN(o.id) FROM Order o")
+    Long findMinId();
+
+    @Query("SELECT MAX(o.id) FROM Order o")
+    Long findMaxId();
 }
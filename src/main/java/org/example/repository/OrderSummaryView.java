@@ -0,0 +1,19 @@
+package org.example.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.example.model.Status;
+
+public interface OrderSummaryView {
+    Long getId();
+
+    Long getUserId();
+
+    LocalDateTime getOrderDate();
+
+    BigDecimal getTotal();
+
+    Status getStatus();
+
+    Long getVersion();
+}
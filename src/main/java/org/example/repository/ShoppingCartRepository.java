@@ -3,11 +3,31 @@ package org.example.repository;
 import org.example.model.ShoppingCart;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
+public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long>,
+        ShoppingCartRepositoryCustom {
     @EntityGraph(attributePaths = {"cartItems.book", "user"})
     Optional<ShoppingCart> findByUserId(Long userId);
+
+    @Query("SELECT sc.version FROM ShoppingCart sc WHERE sc.id = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("""
+            UPDATE ShoppingCart sc SET sc.version = sc.version + 1, sc.updatedAt = LOCAL DATETIME
+            WHERE sc.id = :userId AND sc.isDeleted = false""")
+    int incrementVersionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("""
+            UPDATE ShoppingCart sc SET sc.version = sc.version + 1, sc.updatedAt = LOCAL DATETIME
+            WHERE sc.id = :userId AND sc.version = :version AND sc.isDeleted = false""")
+    int incrementVersionByUserIdAndVersion(@Param("userId") Long userId,
+                                           @Param("version") Long version);
 }
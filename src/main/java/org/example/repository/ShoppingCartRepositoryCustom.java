@@ -0,0 +1,8 @@
+package org.example.repository;
+
+import java.util.Optional;
+import org.example.model.ShoppingCart;
+
+public interface ShoppingCartRepositoryCustom {
+    Optional<ShoppingCart> findWithItemsByUserId(Long userId);
+}
@@ -0,0 +1,27 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.example.model.ShoppingCart;
+
+@RequiredArgsConstructor
+public class ShoppingCartRepositoryCustomImpl implements ShoppingCartRepositoryCustom {
+    private static final String FIND_WITH_ITEMS = """
+            SELECT sc FROM ShoppingCart sc
+            JOIN FETCH sc.user
+            LEFT JOIN FETCH sc.cartItems ci
+            LEFT JOIN FETCH ci.book
+            WHERE sc.id = :userId""";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<ShoppingCart> findWithItemsByUserId(Long userId) {
+        return entityManager
+                .createQuery(FIND_WITH_ITEMS, ShoppingCart.class)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .findFirst();
+    }
+}
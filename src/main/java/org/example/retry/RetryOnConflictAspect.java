@@ -0,0 +1,44 @@
+package org.example.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+    @Value("${optimistic-lock.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${optimistic-lock.retry.backoff-ms:20}")
+    private long backoffMs;
+
+    @Around("@annotation(org.example.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Concurrent update in {}, retrying (attempt {} of {})",
+                        joinPoint.getSignature().toShortString(), attempt + 1, maxAttempts);
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.example.service.archive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class SoftDeleteArchiveJob {
+    private static final List<ArchiveTarget> TARGETS = List.of(
+            new ArchiveTarget("orders", "id", "", List.of(new ChildTable("order_items", "order_id"))),
+            new ArchiveTarget("shopping_carts", "user_id", "",
+                    List.of(new ChildTable("cart_items", "shopping_cart_id"))),
+            new ArchiveTarget("books", "id", """
+                    AND NOT EXISTS (SELECT 1 FROM order_items oi WHERE oi.book_id = t.id)
+                    AND NOT EXISTS (SELECT 1 FROM cart_items ci WHERE ci.book_id = t.id)""",
+                    List.of(new ChildTable("books_categories", "book_id"))),
+            new ArchiveTarget("categories", "id", "",
+                    List.of(new ChildTable("books_categories", "category_id"))),
+            new ArchiveTarget("users", "id", """
+                    AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.user_id = t.id)
+                    AND NOT EXISTS (SELECT 1 FROM shopping_carts sc WHERE sc.user_id = t.id)""",
+                    List.of(new ChildTable("users_roles", "user_id"))));
+
+    private static final String INSERT_ARCHIVED_ROW = """
+            INSERT INTO archived_rows (source_table, source_id, deleted_at, archived_at, payload)
+            VALUES (:sourceTable, :sourceId, :deletedAt, :archivedAt, :payload)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, AtomicLong> pending = new HashMap<>();
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.retention:30d}")
+    private Duration retention;
+
+    @Value("${archive.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${archive.pause-between-chunks:250ms}")
+    private Duration pauseBetweenChunks;
+
+    @Value("${archive.max-chunks-per-run:500}")
+    private int maxChunksPerRun;
+
+    public SoftDeleteArchiveJob(NamedParameterJdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        for (ArchiveTarget target : TARGETS) {
+            AtomicLong backlog = new AtomicLong();
+            pending.put(target.table(), backlog);
+            Gauge.builder("archive.rows.pending", backlog, AtomicLong::get)
+                    .description("Soft-deleted rows old enough to be archived")
+                    .tag("table", target.table())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("archive.run.active", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether an archival run is in progress")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${archive.cron:0 */10 * * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public Map<String, Long> run() {
+        Map<String, Long> archived = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            return archived;
+        }
+        try {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+            int chunks = 0;
+            for (ArchiveTarget target : TARGETS) {
+                AtomicLong backlog = pending.get(target.table());
+                backlog.set(countEligible(target, cutoff));
+                long total = 0;
+                while (backlog.get() > 0 && chunks < maxChunksPerRun) {
+                    int moved = archiveChunk(target, cutoff);
+                    chunks++;
+                    total += moved;
+                    backlog.addAndGet(-moved);
+                    if (moved < chunkSize) {
+                        break;
+                    }
+                    pause();
+                }
+                archived.put(target.table(), total);
+            }
+            log.info("Archived soft-deleted rows {}", archived);
+            return archived;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Archival run interrupted after {}", archived);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long countEligible(ArchiveTarget target, Timestamp cutoff) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + target.table()
+                        + " t WHERE t.is_deleted = true AND t.deleted_at < :cutoff "
+                        + target.condition(),
+                new MapSqlParameterSource("cutoff", cutoff), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private int archiveChunk(ArchiveTarget target, Timestamp cutoff) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Integer moved = transactionTemplate.execute(status -> moveChunk(target, cutoff));
+            Counter.builder("archive.rows.archived")
+                    .tag("table", target.table())
+                    .register(meterRegistry)
+                    .increment(moved);
+            return moved;
+        } catch (DataAccessException e) {
+            Counter.builder("archive.chunks.failed")
+                    .tag("table", target.table())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Can't archive a chunk of {}, it will be retried on the next run",
+                    target.table(), e);
+            return 0;
+        } finally {
+            sample.stop(Timer.builder("archive.chunk.duration")
+                    .tag("table", target.table())
+                    .register(meterRegistry));
+        }
+    }
+
+    private int moveChunk(ArchiveTarget target, Timestamp cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT t." + target.key() + " FROM "
+                        + target.table() + " t WHERE t.is_deleted = true AND t.deleted_at < :cutoff "
+                        + target.condition() + " ORDER BY t." + target.key() + " LIMIT :limit",
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", chunkSize),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource byIds = new MapSqlParameterSource("ids", ids);
+
+        Map<Long, Map<String, Object>> payloads = new LinkedHashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM "
+                + target.table() + " WHERE " + target.key() + " IN (:ids)", byIds)) {
+            Map<String, Object> columns = lowerCaseKeys(row);
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("row", columns);
+            payloads.put(((Number) columns.get(target.key())).longValue(), payload);
+        }
+        for (ChildTable child : target.children()) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM "
+                    + child.table() + " WHERE " + child.foreignKey() + " IN (:ids)", byIds)) {
+                Map<String, Object> columns = lowerCaseKeys(row);
+                Long parentId = ((Number) columns.get(child.foreignKey())).longValue();
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> rows = (List<Map<String, Object>>) payloads.get(parentId)
+                        .computeIfAbsent(child.table(), table -> new ArrayList<>());
+                rows.add(columns);
+            }
+        }
+
+        Timestamp archivedAt = Timestamp.from(Instant.now());
+        List<MapSqlParameterSource> archivedRows = new ArrayList<>(payloads.size());
+        payloads.forEach((id, payload) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> row = (Map<String, Object>) payload.get("row");
+            archivedRows.add(new MapSqlParameterSource()
+                    .addValue("sourceTable", target.table())
+                    .addValue("sourceId", id)
+                    .addValue("deletedAt", row.get("deleted_at"))
+                    .addValue("archivedAt", archivedAt)
+                    .addValue("payload", toJson(payload)));
+        });
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVED_ROW,
+                archivedRows.toArray(MapSqlParameterSource[]::new));
+
+        for (ChildTable child : target.children()) {
+            jdbcTemplate.update("DELETE FROM " + child.table() + " WHERE "
+                    + child.foreignKey() + " IN (:ids)", byIds);
+        }
+        String deleteRows = "DELETE FROM " + target.table()
+                + " WHERE " + target.key() + " IN (:ids) AND is_deleted = true";
+        int deleted = jdbcTemplate.update(deleteRows, byIds);
+        if (deleted != payloads.size()) {
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(
+                    deleteRows, payloads.size(), deleted);
+        }
+        return deleted;
+    }
+
+    private Map<String, Object> lowerCaseKeys(Map<String, Object> row) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        row.forEach((column, value) -> columns.put(column.toLowerCase(Locale.ROOT), value));
+        return columns;
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize archived row", e);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (!pauseBetweenChunks.isZero()) {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+        }
+    }
+
+    private record ArchiveTarget(String table, String key, String condition,
+                                 List<ChildTable> children) {
+    }
+
+    private record ChildTable(String table, String foreignKey) {
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.service.bestseller;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class BestsellerBoard {
+    private static final long SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+    private static final Ranking EMPTY = new Ranking(new long[0], new long[0]);
+
+    private static final String SELECT_SALES = """
+            SELECT bucket_start, book_id, quantity
+            FROM book_sales_hourly
+            WHERE bucket_start > :since""";
+    private static final String UPDATE_SALES = """
+            UPDATE book_sales_hourly SET quantity = quantity + :quantity
+            WHERE bucket_start = :bucketStart AND book_id = :bookId""";
+    private static final String INSERT_SALES = """
+            INSERT INTO book_sales_hourly (bucket_start, book_id, quantity)
+            VALUES (:bucketStart, :bookId, :quantity)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentSkipListMap<Long, Map<Long, SalesCounter>> buckets =
+            new ConcurrentSkipListMap<>();
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile Map<BestsellerWindow, Ranking> rankings = new EnumMap<>(BestsellerWindow.class);
+    private volatile long rankedHour;
+
+    @Value("${bestsellers.flush.batch-size:500}")
+    private int batchSize;
+
+    public BestsellerBoard(NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Ranking getRanking(BestsellerWindow window) {
+        return rankings.getOrDefault(window, EMPTY);
+    }
+
+    public void recordSales(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> sold = Map.copyOf(quantities);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(sold);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(sold);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Can't load sales rollup, bestsellers only count new orders", e);
+        }
+    }
+
+    public void load() {
+        long since = currentHour() - BestsellerWindow.MONTH.getHours();
+        jdbcTemplate.query(SELECT_SALES,
+                new MapSqlParameterSource("since", toTimestamp(since)), row -> {
+                    long hour = row.getTimestamp("bucket_start").toInstant().getEpochSecond()
+                            / SECONDS_PER_HOUR;
+                    counter(hour, row.getLong("book_id")).total.add(row.getLong("quantity"));
+                });
+        changed.set(true);
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${bestsellers.refresh-interval-ms:5000}")
+    public void refresh() {
+        long hour = currentHour();
+        if (!changed.getAndSet(false) && hour == rankedHour) {
+            return;
+        }
+        Map<BestsellerWindow, Ranking> refreshed = new EnumMap<>(BestsellerWindow.class);
+        for (BestsellerWindow window : BestsellerWindow.values()) {
+            Map<Long, Long> totals = new HashMap<>();
+            buckets.tailMap(hour - window.getHours(), false).values().forEach(bucket ->
+                    bucket.forEach((bookId, counter) -> {
+                        long sold = counter.total.sum();
+                        if (sold > 0) {
+                            totals.merge(bookId, sold, Long::sum);
+                        }
+                    }));
+            refreshed.put(window, rank(totals));
+        }
+        rankings = refreshed;
+        rankedHour = hour;
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${bestsellers.flush-interval-ms:30000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<SalesDelta> deltas = new ArrayList<>();
+            buckets.forEach((hour, bucket) -> bucket.forEach((bookId, counter) -> {
+                long quantity = counter.unflushed.sumThenReset();
+                if (quantity != 0) {
+                    deltas.add(new SalesDelta(hour, bookId, quantity, counter));
+                }
+            }));
+
+            for (int from = 0; from < deltas.size(); from += batchSize) {
+                List<SalesDelta> batch = deltas.subList(from,
+                        Math.min(from + batchSize, deltas.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(batch));
+                } catch (DataAccessException e) {
+                    deltas.subList(from, deltas.size()).forEach(delta ->
+                            delta.counter().unflushed.add(delta.quantity()));
+                    log.warn("Can't flush {} sales deltas, they will be retried on the next flush",
+                            deltas.size() - from, e);
+                    break;
+                }
+            }
+
+            long oldest = currentHour() - BestsellerWindow.MONTH.getHours();
+            buckets.headMap(oldest, true).entrySet().removeIf(bucket ->
+                    bucket.getValue().values().stream()
+                            .allMatch(counter -> counter.unflushed.sum() == 0));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<SalesDelta> batch) {
+        MapSqlParameterSource[] params = batch.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("bucketStart", toTimestamp(delta.hour()))
+                        .addValue("bookId", delta.bookId())
+                        .addValue("quantity", delta.quantity()))
+                .toArray(MapSqlParameterSource[]::new);
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SALES, params);
+        List<MapSqlParameterSource> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(params[i]);
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SALES, missing.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    private void add(Map<Long, Integer> quantities) {
+        long hour = currentHour();
+        quantities.forEach((bookId, quantity) -> {
+            SalesCounter counter = counter(hour, bookId);
+            counter.total.add(quantity);
+            counter.unflushed.add(quantity);
+        });
+        changed.set(true);
+    }
+
+    private SalesCounter counter(long hour, Long bookId) {
+        return buckets.computeIfAbsent(hour, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(bookId, key -> new SalesCounter());
+    }
+
+    private Ranking rank(Map<Long, Long> totals) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(totals.entrySet());
+        entries.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        long[] bookIds = new long[entries.size()];
+        long[] quantities = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            bookIds[i] = entries.get(i).getKey();
+            quantities[i] = entries.get(i).getValue();
+        }
+        return new Ranking(bookIds, quantities);
+    }
+
+    private long currentHour() {
+        return Instant.now().getEpochSecond() / SECONDS_PER_HOUR;
+    }
+
+    private Timestamp toTimestamp(long hour) {
+        return Timestamp.from(Instant.ofEpochSecond(hour * SECONDS_PER_HOUR));
+    }
+
+    public record Ranking(long[] bookIds, long[] quantities) {
+    }
+
+    private record SalesDelta(long hour, Long bookId, long quantity, SalesCounter counter) {
+    }
+
+    private static class SalesCounter {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder unflushed = new LongAdder();
+    }
+}
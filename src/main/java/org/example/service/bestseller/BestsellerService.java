@@ -0,0 +1,8 @@
+package org.example.service.bestseller;
+
+import org.example.dto.book.BestsellerDto;
+import java.util.List;
+
+public interface BestsellerService {
+    List<BestsellerDto> getBestsellers(Long categoryId, BestsellerWindow window, int limit);
+}
@@ -0,0 +1,63 @@
+package org.example.service.bestseller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.book.BestsellerDto;
+import org.example.dto.book.BookDto;
+import org.example.repository.BookCategoryLink;
+import org.example.repository.BookRepository;
+import org.example.service.book.BookService;
+import org.example.service.category.CategoryBookIndex;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class BestsellerServiceImpl implements BestsellerService {
+    private final BestsellerBoard bestsellerBoard;
+    private final CategoryBookIndex categoryBookIndex;
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+
+    @Override
+    public List<BestsellerDto> getBestsellers(Long categoryId, BestsellerWindow window, int limit) {
+        BestsellerBoard.Ranking ranking = bestsellerBoard.getRanking(window);
+        if (limit <= 0 || ranking.bookIds().length == 0) {
+            return List.of();
+        }
+        LongPredicate included = categoryId == null ? bookId -> true : inCategory(categoryId);
+        List<Long> bookIds = new ArrayList<>(Math.min(limit, ranking.bookIds().length));
+        Map<Long, Long> sold = new HashMap<>();
+        for (int i = 0; i < ranking.bookIds().length && bookIds.size() < limit; i++) {
+            long bookId = ranking.bookIds()[i];
+            if (included.test(bookId)) {
+                bookIds.add(bookId);
+                sold.put(bookId, ranking.quantities()[i]);
+            }
+        }
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        List<BestsellerDto> bestsellers = new ArrayList<>(bookIds.size());
+        for (BookDto book : bookService.getBooksByIds(bookIds).getBooks()) {
+            bestsellers.add(new BestsellerDto(book, sold.get(book.getId())));
+        }
+        return bestsellers;
+    }
+
+    private LongPredicate inCategory(Long categoryId) {
+        if (categoryBookIndex.isReady()) {
+            return bookId -> categoryBookIndex.contains(categoryId, bookId);
+        }
+        Set<Long> bookIds = bookRepository.findCategoryLinksByCategoryIds(List.of(categoryId))
+                .stream()
+                .map(BookCategoryLink::getBookId)
+                .collect(Collectors.toSet());
+        return bookIds::contains;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.service.bestseller;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum BestsellerWindow {
+    DAY(24),
+    WEEK(24 * 7),
+    MONTH(24 * 30);
+
+    private final int hours;
+}
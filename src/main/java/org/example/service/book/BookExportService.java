@@ -0,0 +1,8 @@
+package org.example.service.book;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+    void exportBooks(OutputStream output, BookExportFormat format) throws IOException;
+}
@@ -0,0 +1,162 @@
+package org.example.service.book;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.example.model.Book;
+import org.example.repository.BookCategoryLink;
+import org.example.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class BookExportServiceImpl implements BookExportService {
+    private static final List<String> CSV_COLUMNS = List.of("id", "title", "author", "isbn",
+            "price", "description", "coverImage", "categoryIds");
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${book.export.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream output, BookExportFormat format) throws IOException {
+        RowWriter writer = format == BookExportFormat.CSV
+                ? new CsvRowWriter(output)
+                : new NdjsonRowWriter(output);
+        writer.flush();
+
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            List<Book> chunk = new ArrayList<>(chunkSize);
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, writer);
+                }
+            }
+            writeChunk(chunk, writer);
+        }
+        writer.finish();
+    }
+
+    private void writeChunk(List<Book> chunk, RowWriter writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> categoryIds = new HashMap<>();
+        for (BookCategoryLink link : bookRepository.findCategoryLinks(
+                chunk.stream().map(Book::getId).toList())) {
+            categoryIds.computeIfAbsent(link.getBookId(), id -> new ArrayList<>())
+                    .add(link.getCategoryId());
+        }
+        for (Book book : chunk) {
+            writer.write(book, categoryIds.getOrDefault(book.getId(), List.of()));
+        }
+        writer.flush();
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private interface RowWriter {
+        void write(Book book, List<Long> categoryIds) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final GZIPOutputStream gzip;
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream output) throws IOException {
+            gzip = new GZIPOutputStream(output, true);
+            writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            writeLine(CSV_COLUMNS);
+        }
+
+        @Override
+        public void write(Book book, List<Long> categoryIds) throws IOException {
+            writeLine(Arrays.asList(book.getId(), book.getTitle(), book.getAuthor(),
+                    book.getIsbn(), book.getPrice().toPlainString(), book.getDescription(),
+                    book.getCoverImage(), String.join(BookCsv.CATEGORY_SEPARATOR,
+                            categoryIds.stream().map(String::valueOf).toList())));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+            gzip.finish();
+            gzip.flush();
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            writer.write(BookCsv.formatLine(values));
+            writer.write('\n');
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream output) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Book book, List<Long> categoryIds) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", book.getId());
+            generator.writeStringField("title", book.getTitle());
+            generator.writeStringField("author", book.getAuthor());
+            generator.writeStringField("isbn", book.getIsbn());
+            generator.writeNumberField("price", book.getPrice());
+            generator.writeStringField("description", book.getDescription());
+            generator.writeStringField("coverImage", book.getCoverImage());
+            generator.writeArrayFieldStart("categoryIds");
+            for (Long categoryId : categoryIds) {
+                generator.writeNumber(categoryId);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
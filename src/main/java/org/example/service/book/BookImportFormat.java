@@ -0,0 +1,6 @@
+package org.example.service.book;
+
+public enum BookImportFormat {
+    CSV,
+    NDJSON
+}
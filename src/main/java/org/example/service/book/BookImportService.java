@@ -0,0 +1,8 @@
+package org.example.service.book;
+
+import java.io.InputStream;
+import org.example.dto.book.BookImportResultDto;
+
+public interface BookImportService {
+    BookImportResultDto importBooks(InputStream input, BookImportFormat format);
+}
@@ -0,0 +1,246 @@
+package org.example.service.book;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.book.BookImportErrorDto;
+import org.example.dto.book.BookImportResultDto;
+import org.example.dto.book.CreateBookRequestDto;
+import org.example.exception.BookImportException;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.example.repository.CategoryRepository;
+import org.example.service.category.CategoryBookIndex;
+import org.example.service.search.BookSearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements BookImportService {
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "author", "isbn", "price");
+
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final BookSearchService bookSearchService;
+    private final IsbnBloomFilter isbnFilter;
+    private final CategoryBookIndex categoryBookIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${book.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${book.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public BookImportResultDto importBooks(InputStream input, BookImportFormat format) {
+        ImportJob job = new ImportJob();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = format == BookImportFormat.CSV
+                    ? readHeader(reader.readLine())
+                    : null;
+            String line;
+            long row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                job.accept(row, line, columns);
+            }
+            job.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read import stream", e);
+        }
+        return job.result;
+    }
+
+    private Map<String, Integer> readHeader(String header) {
+        if (header == null) {
+            throw new BookImportException("CSV header is missing");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = BookCsv.parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new BookImportException("CSV header must contain columns " + REQUIRED_COLUMNS);
+        }
+        return columns;
+    }
+
+    private CreateBookRequestDto parseCsv(String line, Map<String, Integer> columns) {
+        List<String> values = BookCsv.parseLine(line);
+        CreateBookRequestDto requestDto = new CreateBookRequestDto();
+        requestDto.setTitle(column(values, columns, "title"));
+        requestDto.setAuthor(column(values, columns, "author"));
+        requestDto.setIsbn(column(values, columns, "isbn"));
+        String price = column(values, columns, "price");
+        requestDto.setPrice(price == null ? null : new BigDecimal(price));
+        requestDto.setDescription(column(values, columns, "description"));
+        requestDto.setCoverImage(column(values, columns, "coverImage"));
+        String categoryIds = column(values, columns, "categoryIds");
+        requestDto.setCategoryIds(categoryIds == null ? null : Arrays.stream(
+                        categoryIds.split(BookCsv.CATEGORY_SEPARATOR))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .toList());
+        return requestDto;
+    }
+
+    private String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || values.get(index).isBlank()) {
+            return null;
+        }
+        return values.get(index).trim();
+    }
+
+    private class ImportJob {
+        private final BookImportResultDto result = new BookImportResultDto();
+        private final List<Long> rows = new ArrayList<>();
+        private final List<CreateBookRequestDto> books = new ArrayList<>();
+        private final Set<Long> knownCategoryIds = new HashSet<>();
+        private final Set<Long> missingCategoryIds = new HashSet<>();
+
+        void accept(long row, String line, Map<String, Integer> columns) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            CreateBookRequestDto requestDto;
+            try {
+                requestDto = columns != null
+                        ? parseCsv(line, columns)
+                        : objectMapper.readValue(line, CreateBookRequestDto.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                reject(row, null, List.of("Malformed row: " + e.getMessage()));
+                return;
+            }
+
+            List<String> violations = validator.validate(requestDto).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .toList();
+            if (!violations.isEmpty()) {
+                reject(row, requestDto.getIsbn(), violations);
+                return;
+            }
+
+            rows.add(row);
+            books.add(requestDto);
+            if (books.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (books.isEmpty()) {
+                return;
+            }
+            resolveCategories();
+
+            List<Long> acceptedRows = new ArrayList<>();
+            List<CreateBookRequestDto> accepted = new ArrayList<>();
+            Set<String> existingIsbns = bookRepository.findExistingIsbns(
+                    books.stream().map(CreateBookRequestDto::getIsbn).toList());
+            Set<String> batchIsbns = new HashSet<>();
+            for (int i = 0; i < books.size(); i++) {
+                CreateBookRequestDto requestDto = books.get(i);
+                List<Long> missing = requestDto.getCategoryIds().stream()
+                        .filter(missingCategoryIds::contains)
+                        .toList();
+                if (!missing.isEmpty()) {
+                    reject(rows.get(i), requestDto.getIsbn(),
+                            List.of("Categories not found: " + missing));
+                } else if (existingIsbns.contains(requestDto.getIsbn())
+                        || !batchIsbns.add(requestDto.getIsbn())) {
+                    reject(rows.get(i), requestDto.getIsbn(),
+                            List.of("Book with isbn " + requestDto.getIsbn() + " already exists"));
+                } else {
+                    acceptedRows.add(rows.get(i));
+                    accepted.add(requestDto);
+                }
+            }
+
+            if (accepted.isEmpty()) {
+                rows.clear();
+                books.clear();
+                return;
+            }
+            try {
+                insert(accepted);
+            } catch (DataAccessException e) {
+                for (int i = 0; i < accepted.size(); i++) {
+                    insertRow(acceptedRows.get(i), accepted.get(i));
+                }
+            }
+            rows.clear();
+            books.clear();
+        }
+
+        private void insertRow(long row, CreateBookRequestDto requestDto) {
+            try {
+                insert(List.of(requestDto));
+            } catch (DataAccessException e) {
+                reject(row, requestDto.getIsbn(),
+                        List.of("Insert failed: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+
+        private void insert(List<CreateBookRequestDto> requests) {
+            List<Book> inserted = transactionTemplate.execute(
+                    status -> bookRepository.insertAll(requests));
+            for (int i = 0; i < inserted.size(); i++) {
+                Book book = inserted.get(i);
+                isbnFilter.put(book.getIsbn());
+                bookSearchService.index(book);
+                categoryBookIndex.addBook(book.getId(), requests.get(i).getCategoryIds());
+            }
+            result.setImportedRows(result.getImportedRows() + inserted.size());
+        }
+
+        private void resolveCategories() {
+            Set<Long> unresolved = new HashSet<>();
+            books.forEach(book -> unresolved.addAll(book.getCategoryIds()));
+            unresolved.removeAll(knownCategoryIds);
+            unresolved.removeAll(missingCategoryIds);
+            if (unresolved.isEmpty()) {
+                return;
+            }
+            Set<Long> existing = categoryRepository.findExistingIds(unresolved);
+            knownCategoryIds.addAll(existing);
+            unresolved.removeAll(existing);
+            missingCategoryIds.addAll(unresolved);
+        }
+
+        private void reject(long row, String isbn, List<String> messages) {
+            result.setFailedRows(result.getFailedRows() + 1);
+            if (result.getErrors().size() < maxReportedErrors) {
+                result.getErrors().add(new BookImportErrorDto(row, isbn, messages));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+}
@@ -1,15 +1,40 @@
 package org.example.service.book;
 
+import org.example.dto.book.BookBatchResponseDto;
+import org.example.dto.book.BookCategoryAssignmentRequestDto;
+import org.example.dto.book.BookCategoryAssignmentResultDto;
 import org.example.dto.book.BookDto;
+import org.example.dto.book.BookFacetsDto;
+import org.example.dto.book.BookFilterDto;
+import org.example.dto.book.BookStockAdjustmentDto;
+import org.example.dto.book.BookStockDto;
 import org.example.dto.book.CreateBookRequestDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.List;
 
 public interface BookService {
     Page<BookDto> findAll(Pageable pageable);
 
+    Page<BookDto> findAll(BookFilterDto filter, Pageable pageable);
+
+    BookFacetsDto getFacets(BookFilterDto filter);
+
+    CursorSliceDto<BookDto> scroll(String after, Pageable pageable);
+
     BookDto getBookById(Long id);
 
+    BookBatchResponseDto getBooksByIds(List<Long> ids);
+
+    BookStockDto getStock(Long id);
+
+    BookStockDto adjustStock(Long id, BookStockAdjustmentDto adjustmentDto);
+
+    BookDto getBookByIsbn(String isbn);
+
+    List<BookDto> getBooksByIsbns(List<String> isbns);
+
     BookDto createBook(CreateBookRequestDto bookDto);
 
     BookDto update(Long id, CreateBookRequestDto updateBook);
@@ -17,4 +42,8 @@ public interface BookService {
     void delete(Long id);
 
     BookDto save(CreateBookRequestDto requestDto);
+
+    BookCategoryAssignmentResultDto assignCategories(BookCategoryAssignmentRequestDto requestDto);
+
+    BookCategoryAssignmentResultDto unassignCategories(BookCategoryAssignmentRequestDto requestDto);
 }
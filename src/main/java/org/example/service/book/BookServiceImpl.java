@@ -1,19 +1,53 @@
 package org.example.service.book;
 
+import org.example.dto.book.BookBatchResponseDto;
+import org.example.dto.book.BookCategoryAssignmentRequestDto;
+import org.example.dto.book.BookCategoryAssignmentResultDto;
 import org.example.dto.book.BookDto;
+import org.example.dto.book.BookFacetsDto;
+import org.example.dto.book.BookFilterDto;
+import org.example.dto.book.BookStockAdjustmentDto;
+import org.example.dto.book.BookStockDto;
+import org.example.dto.book.CategoryFacetDto;
+import org.example.dto.book.PriceBucketFacetDto;
 import org.example.dto.book.CreateBookRequestDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.exception.EntityNotFoundException;
+import org.example.exception.InsufficientStockException;
 import lombok.RequiredArgsConstructor;
+import org.example.config.CacheConfig;
 import org.example.mapper.BookMapper;
 import org.example.model.Book;
 import org.example.model.Category;
+import org.example.repository.BookSpecifications;
 import org.example.repository.CategoryRepository;
+import org.example.service.category.CategoryBookIndex;
+import org.example.service.pagination.KeysetCursorCodec;
+import org.example.service.search.BookSearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.example.repository.BookRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,14 +55,66 @@ public class BookServiceImpl implements BookService {
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final CategoryRepository categoryRepository;
+    private final KeysetCursorCodec cursorCodec;
+    private final BookSearchService bookSearchService;
+    private final IsbnBloomFilter isbnFilter;
+    private final CategoryBookIndex categoryBookIndex;
+    private final CacheManager cacheManager;
+
+    @Value("${book.facets.price-buckets:10,25,50,100}")
+    private List<BigDecimal> priceBoundaries;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable)
-                .map(bookMapper::toDto);
+        return bookRepository.findAllDtos(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookDto> findAll(BookFilterDto filter, Pageable pageable) {
+        Specification<Book> specification = toSpecification(filter, true, true);
+        if (specification == null) {
+            return bookRepository.findAllDtos(pageable);
+        }
+        return bookRepository.findAllDtos(specification, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOK_FACETS, key = "#filter", sync = true)
+    public BookFacetsDto getFacets(BookFilterDto filter) {
+        List<CategoryFacetDto> categories = bookRepository
+                .countByCategory(toSpecification(filter, true, false))
+                .entrySet()
+                .stream()
+                .map(entry -> new CategoryFacetDto(entry.getKey(), entry.getValue()))
+                .toList();
+
+        List<Long> counts = bookRepository.countByPriceBuckets(
+                toSpecification(filter, false, true), priceBoundaries);
+        List<PriceBucketFacetDto> priceBuckets = new ArrayList<>(counts.size());
+        for (int i = 0; i < counts.size(); i++) {
+            priceBuckets.add(new PriceBucketFacetDto(
+                    i == 0 ? null : priceBoundaries.get(i - 1),
+                    i == priceBoundaries.size() ? null : priceBoundaries.get(i),
+                    counts.get(i)));
+        }
+        return new BookFacetsDto(categories, priceBuckets);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<BookDto> scroll(String after, Pageable pageable) {
+        return cursorCodec.toSlice(bookRepository.findAllBy(
+                        cursorCodec.decode(after, Book.class),
+                        pageable.getSort(),
+                        Limit.of(pageable.getPageSize()))
+                .map(bookMapper::toDto));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id", sync = true)
     public BookDto getBookById(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(
@@ -37,49 +123,193 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public BookBatchResponseDto getBooksByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS);
+        Map<Long, BookDto> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            BookDto cached = cache == null ? null : cache.get(id, BookDto.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (BookDto book : bookRepository.findDtosByIdIn(misses)) {
+                found.put(book.getId(), book);
+                if (cache != null) {
+                    cache.put(book.getId(), book);
+                }
+            }
+        }
+
+        List<BookDto> books = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            BookDto book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BookBatchResponseDto(books, missingIds);
+    }
+
+    @Override
+    public BookStockDto getStock(Long id) {
+        return bookRepository.findStockById(id)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find book by id: " + id));
+    }
+
+    @Override
+    @Transactional
+    public BookStockDto adjustStock(Long id, BookStockAdjustmentDto adjustmentDto) {
+        if (bookRepository.adjustStock(id, adjustmentDto.getDelta()) == 0) {
+            BookStockDto stock = getStock(id);
+            throw new InsufficientStockException("Stock of book " + id + " is "
+                    + stock.getStockQuantity() + ", can't adjust it by "
+                    + adjustmentDto.getDelta());
+        }
+        return getStock(id);
+    }
+
+    @Override
+    public BookDto getBookByIsbn(String isbn) {
+        if (!isbnFilter.mightContain(isbn)) {
+            throw new EntityNotFoundException("Can't find book by isbn: " + isbn);
+        }
+        return bookRepository.findDtoByIsbn(isbn)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find book by isbn: " + isbn));
+    }
+
+    @Override
+    public List<BookDto> getBooksByIsbns(List<String> isbns) {
+        List<String> candidates = isbns.stream()
+                .distinct()
+                .filter(isbnFilter::mightContain)
+                .toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findDtosByIsbnIn(candidates);
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.BOOKS, key = "#result.id")
     public BookDto createBook(CreateBookRequestDto bookDto) {
-        Book book = bookMapper.toModel(bookDto);
-        return bookMapper.toDto(bookRepository.save(book));
+        Book book = bookRepository.save(bookMapper.toModel(bookDto));
+        isbnFilter.put(book.getIsbn());
+        bookSearchService.index(book);
+        return bookMapper.toDto(book);
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS, CacheConfig.BOOK_TITLES}, key = "#id")
     public BookDto update(Long id, CreateBookRequestDto updateBook) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Book not found with id: " + id));
+        String previousIsbn = book.getIsbn();
         bookMapper.updateBookFromDto(updateBook, book);
-        return bookMapper.toDto(bookRepository.save(book));
+        Book saved = bookRepository.save(book);
+        if (!Objects.equals(saved.getIsbn(), previousIsbn)) {
+            isbnFilter.put(saved.getIsbn());
+            isbnFilter.recordRemoval();
+        }
+        bookSearchService.index(saved);
+        return bookMapper.toDto(saved);
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS, CacheConfig.BOOK_TITLES}, key = "#id")
     public void delete(Long id) {
         if (!bookRepository.existsById(id)) {
             throw new EntityNotFoundException(
                     "Book not found with id: " + id);
         }
         bookRepository.deleteById(id);
+        isbnFilter.recordRemoval();
+        bookSearchService.remove(id);
+        categoryBookIndex.removeBook(id);
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.BOOKS, key = "#result.id")
     public BookDto save(CreateBookRequestDto requestDto) {
         Book book = bookMapper.toModel(requestDto);
 
         Set<Category> categories = new HashSet<>();
 
         if (requestDto.getCategoryIds() != null) {
-            categories.addAll(
-                    requestDto.getCategoryIds()
-                            .stream()
-                            .map(id -> categoryRepository.findById(id)
-                                    .orElseThrow(() -> new EntityNotFoundException(
-                                            "Category not found: " + id)))
-                            .toList()
-            );
+            categories.addAll(findCategories(requestDto.getCategoryIds()));
         }
 
         book.setCategories(categories);
 
         Book saved = bookRepository.save(book);
+        isbnFilter.put(saved.getIsbn());
+        bookSearchService.index(saved);
+        categoryBookIndex.addBook(saved.getId(), requestDto.getCategoryIds());
         return bookMapper.toDto(saved);
     }
+
+    @Override
+    @Transactional
+    public BookCategoryAssignmentResultDto assignCategories(
+            BookCategoryAssignmentRequestDto requestDto) {
+        findCategories(requestDto.getCategoryIds());
+        int affectedRows = bookRepository.assignCategories(
+                requestDto.getBookIds(), requestDto.getCategoryIds());
+        categoryBookIndex.reloadCategories(requestDto.getCategoryIds());
+        return new BookCategoryAssignmentResultDto(affectedRows);
+    }
+
+    @Override
+    @Transactional
+    public BookCategoryAssignmentResultDto unassignCategories(
+            BookCategoryAssignmentRequestDto requestDto) {
+        int affectedRows = bookRepository.unassignCategories(
+                requestDto.getBookIds(), requestDto.getCategoryIds());
+        categoryBookIndex.reloadCategories(requestDto.getCategoryIds());
+        return new BookCategoryAssignmentResultDto(affectedRows);
+    }
+
+    private Specification<Book> toSpecification(BookFilterDto filter, boolean byPrice,
+                                                 boolean byCategories) {
+        List<Specification<Book>> specifications = new ArrayList<>();
+        specifications.add(BookSpecifications.authorEquals(filter.getAuthor()));
+        specifications.add(BookSpecifications.titleStartsWith(filter.getTitlePrefix()));
+        if (byPrice) {
+            specifications.add(BookSpecifications.priceBetween(
+                    filter.getMinPrice(), filter.getMaxPrice()));
+        }
+        if (byCategories) {
+            specifications.add(BookSpecifications.inCategories(
+                    filter.getCategoryIds(), filter.getCategoryMatch()));
+        }
+        specifications.removeIf(Objects::isNull);
+        return specifications.isEmpty() ? null : Specification.allOf(specifications);
+    }
+
+    private List<Category> findCategories(Collection<Long> categoryIds) {
+        Set<Long> ids = new LinkedHashSet<>(categoryIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Category> categories = categoryRepository.findAllById(ids);
+        if (categories.size() < ids.size()) {
+            Set<Long> found = categories.stream()
+                    .map(Category::getId)
+                    .collect(Collectors.toSet());
+            ids.removeAll(found);
+            throw new EntityNotFoundException("Categories not found: " + ids);
+        }
+        return categories;
+    }
 }
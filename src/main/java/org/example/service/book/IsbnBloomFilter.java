@@ -0,0 +1,152 @@
+package org.example.service.book;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IsbnBloomFilter {
+    private final BookRepository bookRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${book.isbn-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${book.isbn-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${book.isbn-filter.max-stale-ratio:0.2}")
+    private double maxStaleRatio;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private volatile Bits current;
+    private volatile Bits pending;
+
+    public boolean mightContain(String isbn) {
+        Bits bits = current;
+        return bits == null || bits.mightContain(isbn);
+    }
+
+    public void put(String isbn) {
+        Bits building = pending;
+        if (building != null) {
+            building.put(isbn);
+        }
+        Bits bits = current;
+        if (bits != null) {
+            bits.put(isbn);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public void recordRemoval() {
+        if (current != null && staleEntries.incrementAndGet()
+                > maxStaleRatio * Math.max(insertions.get(), 1)) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Bits building = new Bits(Math.max(expectedInsertions, bookRepository.count() * 2),
+                    falsePositiveRate);
+            pending = building;
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            long loaded = transactionTemplate.execute(status -> {
+                try (Stream<String> isbns = bookRepository.streamAllIsbns()) {
+                    return isbns.mapToLong(isbn -> {
+                        building.put(isbn);
+                        return 1L;
+                    }).sum();
+                }
+            });
+            current = building;
+            pending = null;
+            insertions.set(loaded);
+            staleEntries.set(0);
+            log.info("ISBN filter rebuilt with {} entries and {} bits", loaded, building.bitCount);
+        } catch (RuntimeException e) {
+            pending = null;
+            log.error("ISBN filter rebuild failed, lookups keep using the previous filter", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private static final class Bits {
+        private static final long HASH_OFFSET = 0xCBF29CE484222325L;
+        private static final long HASH_PRIME = 0x100000001B3L;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                    / (Math.log(2) * Math.log(2)));
+            words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+            bitCount = (long) words.length() << 6;
+            hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions
+                    * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                words.getAndAccumulate((int) (index >>> 6), 1L << index, (a, b) -> a | b);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = HASH_OFFSET;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xFF)) * HASH_PRIME;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
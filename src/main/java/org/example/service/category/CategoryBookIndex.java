@@ -0,0 +1,271 @@
+package org.example.service.category;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.category.CategoryIndexReportDto;
+import org.example.repository.BookCategoryLink;
+import org.example.repository.BookRepository;
+import org.example.repository.CategoryBookStats;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryBookIndex {
+    private final BookRepository bookRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Map<Long, RoaringBitmap> bitmaps = new HashMap<>();
+    private List<Consumer<Map<Long, RoaringBitmap>>> pendingChanges;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void addBook(Long bookId, Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return;
+        }
+        int book = Math.toIntExact(bookId);
+        Set<Long> ids = new HashSet<>(categoryIds);
+        afterCommit(() -> apply(index -> ids.forEach(categoryId ->
+                index.computeIfAbsent(categoryId, id -> new RoaringBitmap()).add(book))));
+    }
+
+    public void removeBook(Long bookId) {
+        int book = Math.toIntExact(bookId);
+        afterCommit(() -> apply(index -> index.values().forEach(bitmap -> bitmap.remove(book))));
+    }
+
+    public void removeCategory(Long categoryId) {
+        afterCommit(() -> apply(index -> index.remove(categoryId)));
+    }
+
+    public void reloadCategories(Collection<Long> categoryIds) {
+        Set<Long> ids = new HashSet<>(categoryIds);
+        afterCommit(() -> {
+            Map<Long, RoaringBitmap> loaded = new HashMap<>();
+            ids.forEach(id -> loaded.put(id, new RoaringBitmap()));
+            bookRepository.findCategoryLinksByCategoryIds(ids).forEach(link ->
+                    loaded.get(link.getCategoryId()).add(Math.toIntExact(link.getBookId())));
+            apply(index -> loaded.forEach((id, bitmap) -> {
+                if (bitmap.isEmpty()) {
+                    index.remove(id);
+                } else {
+                    index.put(id, bitmap.clone());
+                }
+            }));
+        });
+    }
+
+    public boolean contains(Long categoryId, Long bookId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmaps.get(categoryId);
+            return bitmap != null && bitmap.contains(Math.toIntExact(bookId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Page<Long> query(Collection<Long> all, Collection<Long> any, Collection<Long> none,
+                            Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            if (all != null && !all.isEmpty()) {
+                result = FastAggregation.and(bitmapsOf(all, true).iterator());
+            }
+            if (any != null && !any.isEmpty()) {
+                RoaringBitmap union = FastAggregation.or(bitmapsOf(any, false).iterator());
+                result = result == null ? union : RoaringBitmap.and(result, union);
+            }
+            if (result == null) {
+                throw new IllegalArgumentException("At least one of 'all' or 'any' is required");
+            }
+            if (none != null && !none.isEmpty() && !result.isEmpty()) {
+                result = RoaringBitmap.andNot(result,
+                        FastAggregation.or(bitmapsOf(none, false).iterator()));
+            }
+            return page(result, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Category index rebuild failed, queries fall back to the database", e);
+        }
+    }
+
+    public CategoryIndexReportDto rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Map<Long, RoaringBitmap> building = new HashMap<>();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            long links = transactionTemplate.execute(status -> {
+                try (Stream<BookCategoryLink> stream = bookRepository.streamAllCategoryLinks()) {
+                    return stream.mapToLong(link -> {
+                        building.computeIfAbsent(link.getCategoryId(), id -> new RoaringBitmap())
+                                .add(Math.toIntExact(link.getBookId()));
+                        return 1L;
+                    }).sum();
+                }
+            });
+            building.values().forEach(RoaringBitmap::runOptimize);
+
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach(change -> change.accept(building));
+                bitmaps = building;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Category index rebuilt with {} categories and {} links",
+                    building.size(), links);
+            return new CategoryIndexReportDto(building.size(), links, List.of());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    public CategoryIndexReportDto verify() {
+        Map<Long, CategoryBookStats> expected = new HashMap<>();
+        bookRepository.findCategoryBookStats()
+                .forEach(stats -> expected.put(stats.getCategoryId(), stats));
+
+        List<Long> mismatched = new ArrayList<>();
+        long links = 0;
+        lock.readLock().lock();
+        try {
+            Set<Long> categoryIds = new HashSet<>(bitmaps.keySet());
+            categoryIds.addAll(expected.keySet());
+            for (Long categoryId : categoryIds) {
+                RoaringBitmap bitmap = bitmaps.get(categoryId);
+                CategoryBookStats stats = expected.get(categoryId);
+                long cardinality = bitmap == null ? 0 : bitmap.getLongCardinality();
+                long idSum = bitmap == null ? 0 : sum(bitmap);
+                links += cardinality;
+                if (stats == null ? cardinality != 0
+                        : stats.getBookCount() != cardinality
+                        || !Objects.equals(stats.getBookIdSum(), idSum)) {
+                    mismatched.add(categoryId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!mismatched.isEmpty()) {
+            log.warn("Category index is out of sync for categories {}, reloading them", mismatched);
+            reloadCategories(mismatched);
+        }
+        return new CategoryIndexReportDto(expected.size(), links, mismatched);
+    }
+
+    private void apply(Consumer<Map<Long, RoaringBitmap>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(bitmaps);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<RoaringBitmap> bitmapsOf(Collection<Long> categoryIds, boolean required) {
+        List<RoaringBitmap> selected = new ArrayList<>();
+        for (Long categoryId : new HashSet<>(categoryIds)) {
+            RoaringBitmap bitmap = bitmaps.get(categoryId);
+            if (bitmap != null) {
+                selected.add(bitmap);
+            } else if (required) {
+                return List.of(new RoaringBitmap());
+            }
+        }
+        return selected;
+    }
+
+    private Page<Long> page(RoaringBitmap result, Pageable pageable) {
+        long total = result.getLongCardinality();
+        if (pageable.isUnpaged()) {
+            List<Long> ids = new ArrayList<>((int) total);
+            result.forEach((int id) -> ids.add((long) id));
+            return new PageImpl<>(ids, pageable, total);
+        }
+        List<Long> ids = new ArrayList<>(pageable.getPageSize());
+        if (pageable.getOffset() < total) {
+            PeekableIntIterator iterator = result.getIntIterator();
+            iterator.advanceIfNeeded(result.select(Math.toIntExact(pageable.getOffset())));
+            while (iterator.hasNext() && ids.size() < pageable.getPageSize()) {
+                ids.add((long) iterator.next());
+            }
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private long sum(RoaringBitmap bitmap) {
+        return bitmap.stream().asLongStream().sum();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
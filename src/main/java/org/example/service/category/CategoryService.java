@@ -1,14 +1,21 @@
 package org.example.service.category;
 
+import org.example.dto.book.BookDto;
 import org.example.dto.category.BookDtoWithoutCategoryIds;
+import org.example.dto.category.CategoryBooksQueryDto;
 import org.example.dto.category.CategoryDto;
+import org.example.dto.category.CategoryIndexReportDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface CategoryService {
     Page<CategoryDto> findAll(Pageable pageable);
 
+    CursorSliceDto<CategoryDto> scroll(String after, Pageable pageable);
+
     CategoryDto getById(Long id);
 
     CategoryDto save(CategoryDto categoryDto);
@@ -17,5 +24,14 @@ public interface CategoryService {
 
     void deleteById(Long id);
 
-    List<BookDtoWithoutCategoryIds> getBooksByCategoryId(Long id);
+    CursorSliceDto<BookDtoWithoutCategoryIds> getBooksByCategoryId(Long id, String after,
+                                                                   Pageable pageable);
+
+    void streamBooksByCategoryId(Long id, OutputStream output) throws IOException;
+
+    Page<BookDto> findBooksByCategories(CategoryBooksQueryDto query, Pageable pageable);
+
+    CategoryIndexReportDto rebuildIndex();
+
+    CategoryIndexReportDto verifyIndex();
 }
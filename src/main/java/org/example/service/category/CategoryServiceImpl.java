@@ -1,19 +1,42 @@
 package org.example.service.category;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.book.BookDto;
+import org.example.dto.book.CategoryMatch;
 import org.example.dto.category.BookDtoWithoutCategoryIds;
+import org.example.dto.category.CategoryBooksQueryDto;
 import org.example.dto.category.CategoryDto;
+import org.example.dto.category.CategoryIndexReportDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.exception.EntityNotFoundException;
-import org.example.mapper.BookMapper;
 import org.example.mapper.CategoryMapper;
 import org.example.model.Book;
 import org.example.model.Category;
 import org.example.repository.BookRepository;
+import org.example.repository.BookSpecifications;
 import org.example.repository.CategoryRepository;
+import org.example.service.pagination.KeysetCursorCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +44,12 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final BookRepository bookRepository;
-    private final BookMapper bookMapper;
+    private final KeysetCursorCodec cursorCodec;
+    private final CategoryBookIndex categoryBookIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${category.books.stream.flush-size:1000}")
+    private int flushSize;
 
     @Override
     public Page<CategoryDto> findAll(Pageable pageable) {
@@ -29,6 +57,15 @@ public class CategoryServiceImpl implements CategoryService {
                 .map(categoryMapper::toDto);
     }
 
+    @Override
+    public CursorSliceDto<CategoryDto> scroll(String after, Pageable pageable) {
+        return cursorCodec.toSlice(categoryRepository.findAllBy(
+                        cursorCodec.decode(after, Category.class),
+                        pageable.getSort(),
+                        Limit.of(pageable.getPageSize()))
+                .map(categoryMapper::toDto));
+    }
+
     @Override
     public CategoryDto getById(Long id) {
         Category category = categoryRepository.findById(id)
@@ -62,13 +99,78 @@ public class CategoryServiceImpl implements CategoryService {
                     "Can't find category by id " + id);
         }
         categoryRepository.deleteById(id);
+        categoryBookIndex.removeCategory(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<BookDtoWithoutCategoryIds> getBooksByCategoryId(Long id, String after,
+                                                                          Pageable pageable) {
+        Long afterId = cursorCodec.decodeAfterId(after, Book.class);
+        int limit = pageable.getPageSize();
+        return cursorCodec.toSlice(bookRepository.findDtosByCategoryIdAfter(
+                        id, afterId == null ? 0L : afterId, Limit.of(limit + 1)),
+                limit, BookDtoWithoutCategoryIds::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBooksByCategoryId(Long id, OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookDtoWithoutCategoryIds.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+                Stream<BookDtoWithoutCategoryIds> books =
+                        bookRepository.streamDtosByCategoryId(id)) {
+            Iterator<BookDtoWithoutCategoryIds> iterator = books.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % flushSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
     }
 
     @Override
-    public List<BookDtoWithoutCategoryIds> getBooksByCategoryId(Long id) {
-        List<Book> books = bookRepository.findByCategoriesId(id);
-        return books.stream()
-                .map(bookMapper::toDtoWithoutCategories)
-                .toList();
+    @Transactional(readOnly = true)
+    public Page<BookDto> findBooksByCategories(CategoryBooksQueryDto query, Pageable pageable) {
+        if (!categoryBookIndex.isReady()) {
+            return bookRepository.findAllDtos(toSpecification(query), PageRequest.of(
+                    pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id")));
+        }
+        Page<Long> ids = categoryBookIndex.query(
+                query.getAll(), query.getAny(), query.getNone(), pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        return new PageImpl<>(bookRepository.findDtosByIdIn(ids.getContent()),
+                pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public CategoryIndexReportDto rebuildIndex() {
+        return categoryBookIndex.rebuild();
+    }
+
+    @Override
+    public CategoryIndexReportDto verifyIndex() {
+        return categoryBookIndex.verify();
+    }
+
+    private Specification<Book> toSpecification(CategoryBooksQueryDto query) {
+        List<Specification<Book>> specifications = new ArrayList<>();
+        specifications.add(BookSpecifications.inCategories(query.getAll(), CategoryMatch.ALL));
+        specifications.add(BookSpecifications.inCategories(query.getAny(), CategoryMatch.ANY));
+        Specification<Book> excluded = BookSpecifications.inCategories(
+                query.getNone(), CategoryMatch.ANY);
+        if (excluded != null) {
+            specifications.add(Specification.not(excluded));
+        }
+        specifications.removeIf(Objects::isNull);
+        return Specification.allOf(specifications);
     }
 }
@@ -0,0 +1,214 @@
+package org.example.service.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.order.OrderRequestDto;
+import org.example.dto.order.OrderResponseDto;
+import org.example.exception.IdempotencyKeyException;
+import org.example.exception.IdempotencyKeyInProgressException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class IdempotencyKeyStore {
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String SELECT_RESPONSE = """
+            SELECT request_hash, response FROM idempotency_keys
+            WHERE user_id = ? AND idempotency_key = ? AND created_at >= ?
+              AND response IS NOT NULL""";
+    private static final String DELETE_EXPIRED_KEY = """
+            DELETE FROM idempotency_keys
+            WHERE user_id = ? AND idempotency_key = ? AND created_at < ?""";
+    private static final String INSERT_KEY = """
+            INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at)
+            VALUES (?, ?, ?, ?)""";
+    private static final String UPDATE_RESPONSE = """
+            UPDATE idempotency_keys SET response = ?
+            WHERE user_id = ? AND idempotency_key = ?""";
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM idempotency_keys WHERE created_at < ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<Key, StoredResponse> responses;
+    private final ConcurrentMap<Key, CompletableFuture<StoredResponse>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public IdempotencyKeyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                               @Value("${idempotency.ttl:24h}") Duration ttl,
+                               @Value("${idempotency.cache-size:10000}") long cacheSize,
+                               @Value("${idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public OrderResponseDto execute(Long userId, String idempotencyKey, OrderRequestDto request,
+                                    Supplier<OrderResponseDto> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        Key key = key(userId, idempotencyKey);
+        String requestHash = hash(request);
+        StoredResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return cached.replay(requestHash);
+        }
+        CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, claim);
+        if (running != null) {
+            return await(running).replay(requestHash);
+        }
+        try {
+            StoredResponse result = run(key, requestHash, action);
+            responses.put(key, result);
+            claim.complete(result);
+            return result.replay(requestHash);
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, claim);
+        }
+    }
+
+    void claim(Long userId, String idempotencyKey, OrderRequestDto request) {
+        Key key = key(userId, idempotencyKey);
+        jdbcTemplate.update(DELETE_EXPIRED_KEY, key.userId(), key.value(), expiredBefore());
+        jdbcTemplate.update(INSERT_KEY, key.userId(), key.value(), hash(request),
+                Timestamp.from(Instant.now()));
+    }
+
+    void save(Long userId, String idempotencyKey, OrderResponseDto response) {
+        Key key = key(userId, idempotencyKey);
+        jdbcTemplate.update(UPDATE_RESPONSE, toJson(response), key.userId(), key.value());
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public int purgeExpired() {
+        int purged = jdbcTemplate.update(DELETE_EXPIRED, expiredBefore());
+        log.info("Purged {} idempotency keys older than {}", purged, ttl);
+        return purged;
+    }
+
+    private StoredResponse run(Key key, String requestHash, Supplier<OrderResponseDto> action) {
+        StoredResponse stored = find(key);
+        if (stored != null) {
+            return stored;
+        }
+        try {
+            return new StoredResponse(requestHash, action.get());
+        } catch (DuplicateKeyException e) {
+            StoredResponse committed = find(key);
+            if (committed == null) {
+                throw e;
+            }
+            return committed;
+        }
+    }
+
+    private StoredResponse find(Key key) {
+        List<StoredResponse> rows = jdbcTemplate.query(SELECT_RESPONSE,
+                (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"),
+                        fromJson(rs.getString("response"))),
+                key.userId(), key.value(), expiredBefore());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException(
+                    "A request with this Idempotency-Key is still in progress, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(
+                    "Interrupted while waiting for a request with this Idempotency-Key");
+        }
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.from(Instant.now().minus(ttl));
+    }
+
+    private Key key(Long userId, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be 1 to "
+                    + MAX_KEY_LENGTH + " characters long");
+        }
+        return new Key(userId, idempotencyKey);
+    }
+
+    private String hash(OrderRequestDto request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Can't fingerprint order request", e);
+        }
+    }
+
+    private String toJson(OrderResponseDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize order response", e);
+        }
+    }
+
+    private OrderResponseDto fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't read stored order response", e);
+        }
+    }
+
+    private record Key(Long userId, String value) {
+    }
+
+    private record StoredResponse(String requestHash, OrderResponseDto response) {
+        OrderResponseDto replay(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyException(
+                        "Idempotency-Key was already used for a different order request");
+            }
+            return response;
+        }
+    }
+}
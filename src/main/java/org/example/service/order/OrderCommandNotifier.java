@@ -0,0 +1,112 @@
+package org.example.service.order;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.order.OrderCommandDto;
+import org.example.model.OrderCommandStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@Component
+public class OrderCommandNotifier {
+    private static final String STATUS_EVENT = "status";
+    private static final Set<String> TERMINAL = Set.of(OrderCommandStatus.COMPLETED.name(),
+            OrderCommandStatus.FAILED.name());
+
+    private final OrderCommandQueue orderCommandQueue;
+    private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    @Value("${order.processing.events-timeout:2m}")
+    private Duration timeout;
+
+    public OrderCommandNotifier(OrderCommandQueue orderCommandQueue) {
+        this.orderCommandQueue = orderCommandQueue;
+    }
+
+    public SseEmitter subscribe(OrderCommandDto current) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        if (TERMINAL.contains(current.getStatus())) {
+            send(emitter, current);
+            emitter.complete();
+            return emitter;
+        }
+        subscriptions.compute(current.getId(), (id, subscription) -> {
+            Subscription target = subscription == null
+                    ? new Subscription(current.getStatus()) : subscription;
+            target.emitters.add(emitter);
+            return target;
+        });
+        Runnable unsubscribe = () -> unsubscribe(current.getId(), emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        send(emitter, current);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${order.processing.events-poll-interval-ms:500}")
+    public void publishChanges() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        List<OrderCommandDto> commands;
+        try {
+            commands = orderCommandQueue.findAll(List.copyOf(subscriptions.keySet()));
+        } catch (DataAccessException e) {
+            log.warn("Can't poll order command statuses for subscribers", e);
+            return;
+        }
+        for (OrderCommandDto command : commands) {
+            Subscription subscription = subscriptions.get(command.getId());
+            if (subscription == null || command.getStatus().equals(subscription.lastStatus)) {
+                continue;
+            }
+            subscription.lastStatus = command.getStatus();
+            boolean terminal = TERMINAL.contains(command.getStatus());
+            for (SseEmitter emitter : subscription.emitters) {
+                send(emitter, command);
+                if (terminal) {
+                    emitter.complete();
+                }
+            }
+            if (terminal) {
+                subscriptions.remove(command.getId(), subscription);
+            }
+        }
+    }
+
+    private void unsubscribe(Long commandId, SseEmitter emitter) {
+        subscriptions.computeIfPresent(commandId, (id, subscription) -> {
+            subscription.emitters.remove(emitter);
+            return subscription.emitters.isEmpty() ? null : subscription;
+        });
+    }
+
+    private void send(SseEmitter emitter, OrderCommandDto command) {
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).id(command.getStatus())
+                    .data(command));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscription {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile String lastStatus;
+
+        private Subscription(String lastStatus) {
+            this.lastStatus = lastStatus;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.service.order;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.order.OrderResponseDto;
+import org.example.exception.IdempotencyKeyInProgressException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class OrderCommandProcessor {
+    private final OrderCommandQueue orderCommandQueue;
+    private final OrderService orderService;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final ExecutorService workers;
+    private final Semaphore capacity;
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final Counter commandsCompleted;
+    private final Counter commandsFailed;
+    private final Counter commandsRetried;
+    private final Timer commandDuration;
+
+    @Value("${order.processing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.processing.batch-size:50}")
+    private int batchSize;
+
+    @Value("${order.processing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${order.processing.stale-after:5m}")
+    private Duration staleAfter;
+
+    public OrderCommandProcessor(OrderCommandQueue orderCommandQueue,
+                                 OrderService orderService,
+                                 IdempotencyKeyStore idempotencyKeyStore,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${order.processing.workers:8}") int workerCount) {
+        this.orderCommandQueue = orderCommandQueue;
+        this.orderService = orderService;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.workers = Executors.newFixedThreadPool(workerCount, task -> {
+            Thread thread = new Thread(task, "order-worker-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.capacity = new Semaphore(workerCount * 2);
+        this.commandsCompleted = Counter.builder("order.commands.completed")
+                .register(meterRegistry);
+        this.commandsFailed = Counter.builder("order.commands.failed")
+                .register(meterRegistry);
+        this.commandsRetried = Counter.builder("order.commands.retried")
+                .description("Order commands released back to the queue after a transient error")
+                .register(meterRegistry);
+        this.commandDuration = Timer.builder("order.commands.duration")
+                .register(meterRegistry);
+        Gauge.builder("order.commands.in-flight", capacity,
+                        permits -> workerCount * 2 - permits.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.processing.poll-interval-ms:200}")
+    public void drainScheduled() {
+        if (enabled) {
+            drain();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.processing.requeue-interval-ms:60000}")
+    public void requeueStaleScheduled() {
+        if (enabled) {
+            int requeued = orderCommandQueue.requeueStale(staleAfter);
+            if (requeued > 0) {
+                log.warn("Requeued {} order commands stuck in processing for over {}",
+                        requeued, staleAfter);
+            }
+        }
+    }
+
+    public int drain() {
+        int claimed = 0;
+        while (true) {
+            int permits = Math.min(batchSize, capacity.availablePermits());
+            if (permits == 0 || !capacity.tryAcquire(permits)) {
+                return claimed;
+            }
+            List<OrderCommandQueue.OrderCommand> commands;
+            try {
+                commands = orderCommandQueue.claim(permits);
+            } catch (DataAccessException e) {
+                capacity.release(permits);
+                log.warn("Can't claim order commands, they will be retried on the next poll", e);
+                return claimed;
+            }
+            capacity.release(permits - commands.size());
+            for (OrderCommandQueue.OrderCommand command : commands) {
+                workers.execute(() -> {
+                    try {
+                        process(command);
+                    } finally {
+                        capacity.release();
+                    }
+                });
+            }
+            claimed += commands.size();
+            if (commands.size() < permits) {
+                return claimed;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void process(OrderCommandQueue.OrderCommand command) {
+        Timer.Sample sample = Timer.start();
+        try {
+            String key = command.idempotencyKey();
+            OrderResponseDto order = idempotencyKeyStore.execute(command.userId(), key,
+                    command.toRequest(),
+                    () -> orderService.createOrder(command.userId(), command.toRequest(), key));
+            orderCommandQueue.complete(command.id(), order.getId());
+            commandsCompleted.increment();
+        } catch (TransientDataAccessException | IdempotencyKeyInProgressException e) {
+            if (command.attempts() < maxAttempts) {
+                log.info("Order command {} hit a transient error, releasing it for a retry",
+                        command.id(), e);
+                orderCommandQueue.release(command.id());
+                commandsRetried.increment();
+            } else {
+                fail(command, e);
+            }
+        } catch (RuntimeException e) {
+            fail(command, e);
+        } finally {
+            sample.stop(commandDuration);
+        }
+    }
+
+    private void fail(OrderCommandQueue.OrderCommand command, RuntimeException e) {
+        log.warn("Order command {} of user {} failed", command.id(), command.userId(), e);
+        try {
+            orderCommandQueue.fail(command.id(), e.getMessage());
+            commandsFailed.increment();
+        } catch (DataAccessException updateFailure) {
+            log.warn("Can't mark order command {} as failed, it will be requeued once stale",
+                    command.id(), updateFailure);
+        }
+    }
+}
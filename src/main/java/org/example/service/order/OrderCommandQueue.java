@@ -0,0 +1,173 @@
+package org.example.service.order;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.example.dto.order.OrderCommandDto;
+import org.example.dto.order.OrderRequestDto;
+import org.example.model.OrderCommandStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OrderCommandQueue {
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final String INSERT_COMMAND = """
+            INSERT INTO order_commands
+                (user_id, shipping_address, status, attempts, created_at, updated_at)
+            VALUES (:userId, :shippingAddress, :status, 0, :now, :now)""";
+    private static final String SELECT_COMMAND = """
+            SELECT id, status, order_id, error FROM order_commands
+            WHERE id = :id AND user_id = :userId""";
+    private static final String SELECT_COMMANDS = """
+            SELECT id, status, order_id, error FROM order_commands WHERE id IN (:ids)""";
+    private static final String SELECT_PENDING = """
+            SELECT id, user_id, shipping_address, attempts FROM order_commands
+            WHERE status = :status
+            ORDER BY id
+            LIMIT :limit""";
+    private static final String CLAIM_COMMAND = """
+            UPDATE order_commands
+            SET status = :processing, attempts = attempts + 1, updated_at = :now
+            WHERE id = :id AND status = :pending""";
+    private static final String COMPLETE_COMMAND = """
+            UPDATE order_commands
+            SET status = :status, order_id = :orderId, error = NULL, updated_at = :now
+            WHERE id = :id""";
+    private static final String FAIL_COMMAND = """
+            UPDATE order_commands SET status = :status, error = :error, updated_at = :now
+            WHERE id = :id""";
+    private static final String RELEASE_COMMAND = """
+            UPDATE order_commands SET status = :pending, updated_at = :now
+            WHERE id = :id""";
+    private static final String REQUEUE_STALE = """
+            UPDATE order_commands SET status = :pending, updated_at = :now
+            WHERE status = :processing AND updated_at < :cutoff""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderCommandQueue(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public OrderCommandDto enqueue(Long userId, OrderRequestDto orderDto) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(INSERT_COMMAND, new MapSqlParameterSource("userId", userId)
+                        .addValue("shippingAddress", orderDto.getShippingAddress())
+                        .addValue("status", OrderCommandStatus.PENDING.name())
+                        .addValue("now", now()),
+                keyHolder, new String[] {"id"});
+        OrderCommandDto command = new OrderCommandDto();
+        command.setId(keyHolder.getKey().longValue());
+        command.setStatus(OrderCommandStatus.PENDING.name());
+        return command;
+    }
+
+    public Optional<OrderCommandDto> find(Long userId, Long commandId) {
+        return jdbcTemplate.query(SELECT_COMMAND,
+                new MapSqlParameterSource("id", commandId).addValue("userId", userId),
+                this::toDto).stream().findFirst();
+    }
+
+    public List<OrderCommandDto> findAll(Collection<Long> commandIds) {
+        if (commandIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_COMMANDS,
+                new MapSqlParameterSource("ids", commandIds), this::toDto);
+    }
+
+    List<OrderCommand> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<OrderCommand> pending = jdbcTemplate.query(SELECT_PENDING,
+                new MapSqlParameterSource("status", OrderCommandStatus.PENDING.name())
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new OrderCommand(rs.getLong("id"), rs.getLong("user_id"),
+                        rs.getString("shipping_address"), rs.getInt("attempts") + 1));
+        if (pending.isEmpty()) {
+            return pending;
+        }
+        Timestamp now = now();
+        SqlParameterSource[] batch = pending.stream()
+                .map(command -> new MapSqlParameterSource("id", command.id())
+                        .addValue("processing", OrderCommandStatus.PROCESSING.name())
+                        .addValue("pending", OrderCommandStatus.PENDING.name())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        int[] updated = jdbcTemplate.batchUpdate(CLAIM_COMMAND, batch);
+        List<OrderCommand> claimed = new ArrayList<>(pending.size());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 1) {
+                claimed.add(pending.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    void complete(Long commandId, Long orderId) {
+        jdbcTemplate.update(COMPLETE_COMMAND, new MapSqlParameterSource("id", commandId)
+                .addValue("status", OrderCommandStatus.COMPLETED.name())
+                .addValue("orderId", orderId)
+                .addValue("now", now()));
+    }
+
+    void fail(Long commandId, String error) {
+        String message = error == null ? "Order processing failed" : error;
+        jdbcTemplate.update(FAIL_COMMAND, new MapSqlParameterSource("id", commandId)
+                .addValue("status", OrderCommandStatus.FAILED.name())
+                .addValue("error", message.length() > MAX_ERROR_LENGTH
+                        ? message.substring(0, MAX_ERROR_LENGTH) : message)
+                .addValue("now", now()));
+    }
+
+    void release(Long commandId) {
+        jdbcTemplate.update(RELEASE_COMMAND, new MapSqlParameterSource("id", commandId)
+                .addValue("pending", OrderCommandStatus.PENDING.name())
+                .addValue("now", now()));
+    }
+
+    int requeueStale(Duration staleAfter) {
+        return jdbcTemplate.update(REQUEUE_STALE,
+                new MapSqlParameterSource("pending", OrderCommandStatus.PENDING.name())
+                        .addValue("processing", OrderCommandStatus.PROCESSING.name())
+                        .addValue("now", now())
+                        .addValue("cutoff", Timestamp.from(Instant.now().minus(staleAfter))));
+    }
+
+    private OrderCommandDto toDto(ResultSet rs, int rowNum) throws SQLException {
+        OrderCommandDto command = new OrderCommandDto();
+        command.setId(rs.getLong("id"));
+        command.setStatus(rs.getString("status"));
+        command.setOrderId(rs.getObject("order_id", Long.class));
+        command.setError(rs.getString("error"));
+        return command;
+    }
+
+    private static Timestamp now() {
+        return Timestamp.from(Instant.now());
+    }
+
+    record OrderCommand(Long id, Long userId, String shippingAddress, int attempts) {
+        OrderRequestDto toRequest() {
+            OrderRequestDto orderDto = new OrderRequestDto();
+            orderDto.setShippingAddress(shippingAddress);
+            return orderDto;
+        }
+
+        String idempotencyKey() {
+            return "order-command-" + id;
+        }
+    }
+}
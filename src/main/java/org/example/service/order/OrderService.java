@@ -1,19 +1,28 @@
 package org.example.service.order;
 
+import org.example.dto.order.OrderCommandDto;
 import org.example.dto.order.OrderRequestDto;
 import org.example.dto.order.OrderResponseDto;
 import org.example.dto.order.OrderUpdateDto;
 import org.example.dto.orderItem.OrderItemResponseDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface OrderService {
-    OrderResponseDto createOrder(Long userId, OrderRequestDto orderDto);
+    OrderResponseDto createOrder(Long userId, OrderRequestDto orderDto, String idempotencyKey);
+
+    OrderCommandDto submitOrder(Long userId, OrderRequestDto orderDto);
+
+    OrderCommandDto getOrderCommand(Long userId, Long commandId);
 
     Page<OrderResponseDto> getUserOrderHistory(Long authentication, Pageable pageable);
 
+    CursorSliceDto<OrderResponseDto> scrollUserOrderHistory(Long userId, String after,
+                                                            Pageable pageable);
+
     OrderUpdateDto updateOrderStatus(Long authentication, Long orderId,
-                                     OrderUpdateDto updateStatus);
+                                     OrderUpdateDto updateStatus, Long expectedVersion);
 
     Page<OrderItemResponseDto> getOrderItems(Long authentication, Long orderId,
                                              Pageable pageable);
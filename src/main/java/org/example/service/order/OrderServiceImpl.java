@@ -1,38 +1,80 @@
 package org.example.service.order;
 
+import org.example.dto.order.OrderCommandDto;
 import org.example.dto.order.OrderRequestDto;
 import org.example.dto.order.OrderResponseDto;
 import org.example.dto.order.OrderUpdateDto;
 import org.example.dto.orderItem.OrderItemResponseDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.model.Order;
+import org.example.model.OrderItem;
 import org.example.model.ShoppingCart;
 import org.example.exception.EntityNotFoundException;
+import org.example.exception.InsufficientStockException;
+import org.example.exception.InvalidCursorException;
 import org.example.exception.OrderProcessingException;
+import org.example.exception.PreconditionFailedException;
 import org.example.mapper.OrderItemMapper;
 import org.example.mapper.OrderMapper;
 import org.example.model.Status;
+import org.example.repository.BookRepository;
+import org.example.repository.OrderItemView;
 import org.example.repository.OrderRepository;
+import org.example.repository.OrderSummaryView;
 import org.example.repository.OrderItemRepository;
 import org.example.repository.ShoppingCartRepository;
-import jakarta.transaction.Transactional;
+import org.example.retry.RetryOnConflict;
+import org.example.service.bestseller.BestsellerBoard;
+import org.example.service.pagination.KeysetCursorCodec;
+import org.example.service.recommendation.CoOccurrenceModel;
+import org.example.service.shoppingcart.WriteBehindCartStore;
+import org.springframework.beans.factory.ObjectProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class OrderServiceImpl implements OrderService {
+    private static final String ORDER_DATE = "orderDate";
+    private static final String ID = "id";
+
     private final ShoppingCartRepository shoppingCartRepository;
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
     private final OrderItemRepository orderItemRepository;
+    private final BookRepository bookRepository;
+    private final CoOccurrenceModel coOccurrenceModel;
+    private final BestsellerBoard bestsellerBoard;
+    private final ObjectProvider<WriteBehindCartStore> writeBehindCartStore;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final OrderCommandQueue orderCommandQueue;
+    private final KeysetCursorCodec cursorCodec;
 
     @Override
-    public OrderResponseDto createOrder(Long userId, OrderRequestDto orderDto) {
-        ShoppingCart shoppingCart = shoppingCartRepository.findByUserId(userId)
+    @RetryOnConflict
+    public OrderResponseDto createOrder(Long userId, OrderRequestDto orderDto,
+                                        String idempotencyKey) {
+        if (idempotencyKey != null) {
+            idempotencyKeyStore.claim(userId, idempotencyKey, orderDto);
+        }
+        writeBehindCartStore.ifAvailable(store -> store.flushForCheckout(userId));
+        if (shoppingCartRepository.incrementVersionByUserId(userId) == 0) {
+            throw new EntityNotFoundException("Shopping cart not found for user id: " + userId);
+        }
+        ShoppingCart shoppingCart = shoppingCartRepository.findWithItemsByUserId(userId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Shopping cart not found for user id: " + userId));
 
@@ -43,20 +85,84 @@ public class OrderServiceImpl implements OrderService {
 
         Order order = orderMapper.cartToOrder(shoppingCart, orderDto.getShippingAddress());
         shoppingCart.clearCart();
-        return orderMapper.toOrderDto(orderRepository.save(order));
+        Order saved = orderRepository.save(order);
+        Map<Long, Integer> quantities = saved.getOrderItems().stream()
+                .collect(Collectors.toMap(item -> item.getBook().getId(),
+                        OrderItem::getQuantity, Integer::sum));
+        Set<Long> insufficient = bookRepository.reserveStock(quantities);
+        if (!insufficient.isEmpty()) {
+            throw new InsufficientStockException(
+                    "Not enough stock for books with ids " + insufficient);
+        }
+        coOccurrenceModel.recordOrder(saved.getId(), quantities.keySet());
+        bestsellerBoard.recordSales(quantities);
+        OrderResponseDto response = orderMapper.toOrderDto(saved);
+        if (idempotencyKey != null) {
+            idempotencyKeyStore.save(userId, idempotencyKey, response);
+        }
+        return response;
+    }
+
+    @Override
+    public OrderCommandDto submitOrder(Long userId, OrderRequestDto orderDto) {
+        return orderCommandQueue.enqueue(userId, orderDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCommandDto getOrderCommand(Long userId, Long commandId) {
+        return orderCommandQueue.find(userId, commandId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find order command by id " + commandId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderResponseDto> getUserOrderHistory(Long userId, Pageable pageable) {
-        return orderRepository.getAllByUserId(userId, pageable)
-                .map(orderMapper::toOrderDto);
+        Page<OrderSummaryView> summaries = orderRepository.findSummariesByUserId(userId, pageable);
+        Map<Long, List<OrderItemResponseDto>> orderItems =
+                findOrderItems(summaries.getContent());
+        return summaries.map(summary -> orderMapper.toOrderDto(summary,
+                orderItems.getOrDefault(summary.getId(), List.of())));
     }
 
     @Override
-    public OrderUpdateDto updateOrderStatus(Long userId, Long orderId, OrderUpdateDto updateStatus) {
+    @Transactional(readOnly = true)
+    public CursorSliceDto<OrderResponseDto> scrollUserOrderHistory(Long userId, String after,
+                                                                   Pageable pageable) {
+        int limit = pageable.getPageSize();
+        Map<String, Object> keys = ((KeysetScrollPosition) cursorCodec.decode(after, Order.class))
+                .getKeys();
+        List<OrderSummaryView> summaries;
+        if (keys.isEmpty()) {
+            summaries = orderRepository.findLatestSummariesByUserId(userId, Limit.of(limit + 1));
+        } else if (keys.size() == 2 && keys.get(ORDER_DATE) instanceof LocalDateTime orderDate
+                && keys.get(ID) instanceof Long id) {
+            summaries = orderRepository.findSummariesByUserIdBefore(userId, orderDate, id,
+                    Limit.of(limit + 1));
+        } else {
+            throw new InvalidCursorException("Malformed cursor: " + after);
+        }
+        CursorSliceDto<OrderSummaryView> slice = cursorCodec.toKeysetSlice(summaries, limit,
+                OrderServiceImpl::cursorKeys);
+        Map<Long, List<OrderItemResponseDto>> orderItems = findOrderItems(slice.getContent());
+        return new CursorSliceDto<>(slice.getContent().stream()
+                .map(summary -> orderMapper.toOrderDto(summary,
+                        orderItems.getOrDefault(summary.getId(), List.of())))
+                .toList(), slice.getSize(), slice.isHasNext(), slice.getNextCursor());
+    }
+
+    @Override
+    @RetryOnConflict
+    public OrderUpdateDto updateOrderStatus(Long userId, Long orderId, OrderUpdateDto updateStatus,
+                                            Long expectedVersion) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Can't find order by id " + orderId));
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new PreconditionFailedException("Order version is " + order.getVersion()
+                    + ", not " + expectedVersion);
+        }
 
         String statusStr = updateStatus.getStatus().trim().toUpperCase();
 
@@ -74,16 +180,37 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderItemResponseDto> getOrderItems(Long userId, Long orderId, Pageable pageable) {
         return orderItemRepository.findByOrderIdAndUserId(orderId, userId, pageable)
                 .map(orderItemMapper::toDto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderItemResponseDto getOrderItem(Long userId, Long orderId, Long itemId) {
         return orderItemRepository
                 .findByIdAndOrderIdAndUserId(itemId, orderId, userId)
                 .map(orderItemMapper::toDto).orElseThrow(
                         () -> new EntityNotFoundException("Order item not found "));
     }
+
+    private Map<Long, List<OrderItemResponseDto>> findOrderItems(
+            List<OrderSummaryView> summaries) {
+        if (summaries.isEmpty()) {
+            return Map.of();
+        }
+        return orderItemRepository
+                .findViewsByOrderIds(summaries.stream().map(OrderSummaryView::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(OrderItemView::getOrderId,
+                        Collectors.mapping(orderItemMapper::toDto, Collectors.toList())));
+    }
+
+    private static Map<String, ?> cursorKeys(OrderSummaryView summary) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(ORDER_DATE, summary.getOrderDate());
+        keys.put(ID, summary.getId());
+        return keys;
+    }
 }
@@ -0,0 +1,125 @@
+package org.example.service.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.pagination.CursorSliceDto;
+import org.example.exception.InvalidCursorException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+@RequiredArgsConstructor
+public class KeysetCursorCodec {
+    private static final String ID = "id";
+    private static final TypeReference<Map<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final ConversionService conversionService = isoConversionService();
+
+    public ScrollPosition decode(String cursor, Class<?> entityType) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> rawKeys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            rawKeys = objectMapper.readValue(json, KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        rawKeys.forEach((property, value) -> keys.put(property,
+                value == null ? null : convert(entityType, property, value)));
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded");
+        }
+        Map<String, String> rawKeys = new LinkedHashMap<>();
+        keyset.getKeys().forEach((property, value) -> rawKeys.put(property,
+                value == null ? null : value.toString()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsString(rawKeys)
+                            .getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't encode cursor", e);
+        }
+    }
+
+    public Long decodeAfterId(String cursor, Class<?> entityType) {
+        Map<String, Object> keys = ((KeysetScrollPosition) decode(cursor, entityType)).getKeys();
+        if (keys.isEmpty()) {
+            return null;
+        }
+        if (keys.size() != 1 || !(keys.get(ID) instanceof Long id)) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
+        }
+        return id;
+    }
+
+    public <T> CursorSliceDto<T> toSlice(List<T> rows, int limit, Function<T, Long> idExtractor) {
+        return toKeysetSlice(rows, limit, row -> Map.of(ID, idExtractor.apply(row)));
+    }
+
+    public <T> CursorSliceDto<T> toKeysetSlice(List<T> rows, int limit,
+                                               Function<T, Map<String, ?>> keyExtractor) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext
+                ? encode(ScrollPosition.forward(
+                        keyExtractor.apply(content.get(content.size() - 1))))
+                : null;
+        return new CursorSliceDto<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    public <T> CursorSliceDto<T> toSlice(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode(window.positionAt(window.size() - 1))
+                : null;
+        return new CursorSliceDto<>(window.getContent(), window.size(),
+                window.hasNext(), nextCursor);
+    }
+
+    private Object convert(Class<?> entityType, String property, String value) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+        if (descriptor == null) {
+            throw new InvalidCursorException("Unknown cursor property: " + property);
+        }
+        try {
+            return conversionService.convert(value, descriptor.getPropertyType());
+        } catch (ConversionException e) {
+            throw new InvalidCursorException("Invalid cursor value for " + property);
+        }
+    }
+
+    private static ConversionService isoConversionService() {
+        DefaultFormattingConversionService service = new DefaultFormattingConversionService(false);
+        DateTimeFormatterRegistrar registrar = new DateTimeFormatterRegistrar();
+        registrar.setUseIsoFormat(true);
+        registrar.registerFormatters(service);
+        return service;
+    }
+}
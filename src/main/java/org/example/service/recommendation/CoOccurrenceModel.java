@@ -0,0 +1,205 @@
+package org.example.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.book.RelatedBooksModelReportDto;
+import org.example.repository.OrderBookLink;
+import org.example.repository.OrderItemRepository;
+import org.example.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoOccurrenceModel {
+    private static final long[] NONE = new long[0];
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    @Value("${recommendation.top-k:20}")
+    private int topK;
+
+    @Value("${recommendation.rebuild.parallelism:4}")
+    private int parallelism;
+
+    @Value("${recommendation.rebuild.partition-size:5000}")
+    private long partitionSize;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Map<Long, LongIntCounter> counts = new HashMap<>();
+    private volatile Map<Long, long[]> related = new ConcurrentHashMap<>();
+    private List<PendingOrder> pendingOrders;
+
+    public long[] getRelated(Long bookId) {
+        return related.getOrDefault(bookId, NONE);
+    }
+
+    public void recordOrder(Long orderId, Collection<Long> bookIds) {
+        List<Long> books = List.copyOf(new LinkedHashSet<>(bookIds));
+        if (books.size() < 2) {
+            return;
+        }
+        PendingOrder order = new PendingOrder(orderId, books);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(order);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(order);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Related books model rebuild failed, lookups keep the previous model", e);
+        }
+    }
+
+    public RelatedBooksModelReportDto rebuild() {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                pendingOrders = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+            Long minId = orderRepository.findMinId();
+            Long maxId = orderRepository.findMaxId();
+
+            Map<Long, LongIntCounter> rebuilt = new HashMap<>();
+            Map<Long, long[]> rebuiltRelated = new ConcurrentHashMap<>();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                if (maxId != null) {
+                    rebuilt.putAll(pool.invoke(new CountTask(minId, maxId)));
+                }
+                pool.submit(() -> rebuilt.entrySet().parallelStream().forEach(entry ->
+                        rebuiltRelated.put(entry.getKey(), entry.getValue().top(topK)))).join();
+            } finally {
+                pool.shutdown();
+            }
+
+            long watermark = maxId == null ? 0 : maxId;
+            writeLock.lock();
+            try {
+                for (PendingOrder order : pendingOrders) {
+                    if (order.orderId() > watermark) {
+                        count(rebuilt, order.bookIds());
+                        order.bookIds().forEach(bookId ->
+                                rebuiltRelated.put(bookId, rebuilt.get(bookId).top(topK)));
+                    }
+                }
+                counts = rebuilt;
+                related = rebuiltRelated;
+            } finally {
+                pendingOrders = null;
+                writeLock.unlock();
+            }
+            log.info("Related books model rebuilt for {} books from orders up to {}",
+                    rebuiltRelated.size(), watermark);
+            return new RelatedBooksModelReportDto(rebuiltRelated.size(), watermark);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void apply(PendingOrder order) {
+        writeLock.lock();
+        try {
+            count(counts, order.bookIds());
+            Map<Long, long[]> current = related;
+            order.bookIds().forEach(bookId ->
+                    current.put(bookId, counts.get(bookId).top(topK)));
+            if (pendingOrders != null) {
+                pendingOrders.add(order);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void count(Map<Long, LongIntCounter> counts, List<Long> bookIds) {
+        for (Long bookId : bookIds) {
+            LongIntCounter counter = counts.computeIfAbsent(bookId, id -> new LongIntCounter());
+            for (Long other : bookIds) {
+                if (!other.equals(bookId)) {
+                    counter.increment(other, 1);
+                }
+            }
+        }
+    }
+
+    private record PendingOrder(Long orderId, List<Long> bookIds) {
+    }
+
+    private class CountTask extends RecursiveTask<Map<Long, LongIntCounter>> {
+        private final long fromId;
+        private final long toId;
+
+        CountTask(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected Map<Long, LongIntCounter> compute() {
+            if (toId - fromId < partitionSize) {
+                return countPartition();
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            CountTask left = new CountTask(fromId, middle);
+            CountTask right = new CountTask(middle + 1, toId);
+            left.fork();
+            Map<Long, LongIntCounter> rightCounts = right.compute();
+            Map<Long, LongIntCounter> leftCounts = left.join();
+            Map<Long, LongIntCounter> larger = leftCounts.size() >= rightCounts.size()
+                    ? leftCounts : rightCounts;
+            Map<Long, LongIntCounter> smaller = larger == leftCounts ? rightCounts : leftCounts;
+            smaller.forEach((bookId, counter) -> larger.merge(bookId, counter, (a, b) -> {
+                a.merge(b);
+                return a;
+            }));
+            return larger;
+        }
+
+        private Map<Long, LongIntCounter> countPartition() {
+            Map<Long, LongIntCounter> partition = new HashMap<>();
+            List<Long> books = new ArrayList<>();
+            Long currentOrder = null;
+            for (OrderBookLink link : orderItemRepository.findOrderBookLinks(fromId, toId)) {
+                if (!link.getOrderId().equals(currentOrder)) {
+                    count(partition, List.copyOf(new LinkedHashSet<>(books)));
+                    books.clear();
+                    currentOrder = link.getOrderId();
+                }
+                books.add(link.getBookId());
+            }
+            count(partition, List.copyOf(new LinkedHashSet<>(books)));
+            return partition;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.service.recommendation;
+
+import java.util.Arrays;
+
+final class LongIntCounter {
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    LongIntCounter() {
+        this(8);
+    }
+
+    LongIntCounter(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? counts[slot] : 0;
+    }
+
+    void increment(long key, int delta) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int slot = find(key);
+        if (keys[slot] == key) {
+            counts[slot] += delta;
+            return;
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    void merge(LongIntCounter other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                increment(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    long[] top(int limit) {
+        int k = Math.min(limit, size);
+        long[] bestKeys = new long[k];
+        int[] bestCounts = new int[k];
+        int filled = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            if (key == EMPTY) {
+                continue;
+            }
+            int count = counts[i];
+            if (filled == k && !ranksBefore(count, key, bestCounts[k - 1], bestKeys[k - 1])) {
+                continue;
+            }
+            int position = filled < k ? filled++ : k - 1;
+            while (position > 0
+                    && ranksBefore(count, key, bestCounts[position - 1], bestKeys[position - 1])) {
+                bestKeys[position] = bestKeys[position - 1];
+                bestCounts[position] = bestCounts[position - 1];
+                position--;
+            }
+            bestKeys[position] = key;
+            bestCounts[position] = count;
+        }
+        return Arrays.copyOf(bestKeys, filled);
+    }
+
+    private static boolean ranksBefore(int count, long key, int otherCount, long otherKey) {
+        return count > otherCount || count == otherCount && key < otherKey;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length << 1];
+        counts = new int[oldKeys.length << 1];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                increment(oldKeys[i], oldCounts[i]);
+            }
+        }
+    }
+}
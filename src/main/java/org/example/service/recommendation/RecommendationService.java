@@ -0,0 +1,11 @@
+package org.example.service.recommendation;
+
+import org.example.dto.book.BookDto;
+import org.example.dto.book.RelatedBooksModelReportDto;
+import java.util.List;
+
+public interface RecommendationService {
+    List<BookDto> getRelatedBooks(Long bookId, int limit);
+
+    RelatedBooksModelReportDto rebuild();
+}
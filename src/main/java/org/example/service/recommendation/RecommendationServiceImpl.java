@@ -0,0 +1,34 @@
+package org.example.service.recommendation;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.book.BookDto;
+import org.example.dto.book.RelatedBooksModelReportDto;
+import org.example.service.book.BookService;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class RecommendationServiceImpl implements RecommendationService {
+    private final CoOccurrenceModel coOccurrenceModel;
+    private final BookService bookService;
+
+    @Override
+    public List<BookDto> getRelatedBooks(Long bookId, int limit) {
+        long[] related = coOccurrenceModel.getRelated(bookId);
+        if (related.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        List<Long> ids = Arrays.stream(related)
+                .limit(limit)
+                .boxed()
+                .toList();
+        return bookService.getBooksByIds(ids).getBooks();
+    }
+
+    @Override
+    public RelatedBooksModelReportDto rebuild() {
+        return coOccurrenceModel.rebuild();
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.service.search;
+
+import org.example.dto.book.BookDto;
+import org.example.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface BookSearchService {
+    Page<BookDto> search(String query, Pageable pageable);
+
+    void index(Book book);
+
+    void remove(Long bookId);
+
+    void rebuild();
+}
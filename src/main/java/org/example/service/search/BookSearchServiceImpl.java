@@ -0,0 +1,284 @@
+package org.example.service.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.MMapDirectory;
+import org.example.dto.book.BookDto;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookSearchServiceImpl implements BookSearchService {
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String AUTHOR = "author";
+    private static final String DESCRIPTION = "description";
+    private static final String ISBN = "isbn";
+    private static final String ISBN_NORMALIZED = "isbnNormalized";
+    private static final String PRICE = "price";
+    private static final String COVER_IMAGE = "coverImage";
+    private static final String GENERATION = "generation";
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final int MAX_QUERY_TERMS = 16;
+
+    private final BookRepository bookRepository;
+
+    @Value("${search.index.path:data/book-index}")
+    private Path indexPath;
+
+    @Value("${search.rebuild.threads:4}")
+    private int rebuildThreads;
+
+    @Value("${search.rebuild.chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private MMapDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private volatile long generation;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexPath);
+        directory = new MMapDirectory(indexPath);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, 1.0, 0.025);
+        reopenThread.setName("book-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    public Page<BookDto> search(String query, Pageable pageable) {
+        Query luceneQuery = buildQuery(query);
+        if (luceneQuery == null || pageable.getOffset() >= MAX_RESULT_WINDOW) {
+            return Page.empty(pageable);
+        }
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), MAX_RESULT_WINDOW);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(luceneQuery, limit);
+                StoredFields storedFields = searcher.storedFields();
+                List<BookDto> content = new ArrayList<>();
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                    content.add(toDto(storedFields.document(hits[i].doc)));
+                }
+                return new PageImpl<>(content, pageable,
+                        Math.min(topDocs.totalHits.value, MAX_RESULT_WINDOW));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Book search failed", e);
+        }
+    }
+
+    @Override
+    public void index(Book book) {
+        try {
+            writer.updateDocument(new Term(ID, book.getId().toString()), toDocument(book, generation));
+        } catch (IOException e) {
+            log.warn("Can't index book {}, it will be picked up by the next rebuild", book.getId(), e);
+        }
+    }
+
+    @Override
+    public void remove(Long bookId) {
+        try {
+            writer.deleteDocuments(new Term(ID, bookId.toString()));
+        } catch (IOException e) {
+            log.warn("Can't remove book {} from the search index", bookId, e);
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long rebuildGeneration = System.currentTimeMillis();
+        generation = rebuildGeneration;
+        Long maxId = bookRepository.findMaxId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = 0; maxId != null && from <= maxId; from += rebuildChunkSize) {
+                long to = from + rebuildChunkSize - 1;
+                long start = from;
+                chunks.add(executor.submit(() -> indexRange(start, to, rebuildGeneration)));
+            }
+            int indexed = 0;
+            for (Future<Integer> chunk : chunks) {
+                indexed += chunk.get();
+            }
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, rebuildGeneration - 1));
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Book search index rebuilt with {} documents", indexed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Book search index rebuild interrupted", e);
+        } catch (ExecutionException | IOException e) {
+            throw new IllegalStateException("Book search index rebuild failed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int indexRange(long from, long to, long rebuildGeneration) throws IOException {
+        List<Book> books = bookRepository.findAllByIdBetween(from, to);
+        for (Book book : books) {
+            writer.updateDocument(new Term(ID, book.getId().toString()),
+                    toDocument(book, rebuildGeneration));
+        }
+        return books.size();
+    }
+
+    private Query buildQuery(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        BooleanQuery.Builder terms = new BooleanQuery.Builder();
+        List<String> tokens = analyze(text);
+        for (String token : tokens) {
+            BooleanQuery.Builder fields = new BooleanQuery.Builder();
+            addField(fields, TITLE, token, 3.0f);
+            addField(fields, AUTHOR, token, 2.0f);
+            addField(fields, DESCRIPTION, token, 1.0f);
+            terms.add(fields.build(), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (!tokens.isEmpty()) {
+            query.add(terms.build(), BooleanClause.Occur.SHOULD);
+        }
+        query.add(new BoostQuery(new TermQuery(new Term(ISBN_NORMALIZED, normalizeIsbn(text))), 10.0f),
+                BooleanClause.Occur.SHOULD);
+        return query.build();
+    }
+
+    private void addField(BooleanQuery.Builder builder, String field, String token, float boost) {
+        Term term = new Term(field, token);
+        builder.add(new BoostQuery(new TermQuery(term), boost), BooleanClause.Occur.SHOULD);
+        int maxEdits = token.length() <= 2 ? 0 : token.length() <= 5 ? 1 : 2;
+        if (maxEdits > 0) {
+            builder.add(new BoostQuery(new FuzzyQuery(term, maxEdits), boost / 2),
+                    BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && tokens.size() < MAX_QUERY_TERMS) {
+                tokens.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private Document toDocument(Book book, long documentGeneration) {
+        Document document = new Document();
+        document.add(new StringField(ID, book.getId().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, book.getTitle(), Field.Store.YES));
+        document.add(new TextField(AUTHOR, book.getAuthor(), Field.Store.YES));
+        document.add(new StringField(ISBN, book.getIsbn(), Field.Store.YES));
+        document.add(new StringField(ISBN_NORMALIZED, normalizeIsbn(book.getIsbn()), Field.Store.NO));
+        document.add(new StoredField(PRICE, book.getPrice().toPlainString()));
+        if (book.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, book.getDescription(), Field.Store.YES));
+        }
+        if (book.getCoverImage() != null) {
+            document.add(new StoredField(COVER_IMAGE, book.getCoverImage()));
+        }
+        document.add(new LongPoint(GENERATION, documentGeneration));
+        return document;
+    }
+
+    private BookDto toDto(Document document) {
+        BookDto bookDto = new BookDto();
+        bookDto.setId(Long.valueOf(document.get(ID)));
+        bookDto.setTitle(document.get(TITLE));
+        bookDto.setAuthor(document.get(AUTHOR));
+        bookDto.setIsbn(document.get(ISBN));
+        bookDto.setPrice(new BigDecimal(document.get(PRICE)));
+        bookDto.setDescription(document.get(DESCRIPTION));
+        bookDto.setCoverImage(document.get(COVER_IMAGE));
+        return bookDto;
+    }
+
+    private String normalizeIsbn(String isbn) {
+        return isbn.replaceAll("[\\s-]", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.service.shoppingcart;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class CartExpiryJob {
+    private static final String SELECT_IDLE_CARTS = """
+            SELECT sc.user_id FROM shopping_carts sc
+            WHERE sc.user_id > :after AND sc.updated_at < :cutoff
+              AND EXISTS (SELECT 1 FROM cart_items ci WHERE ci.shopping_cart_id = sc.user_id)
+            ORDER BY sc.user_id
+            LIMIT :limit""";
+    private static final String LOCK_IDLE_CARTS = """
+            SELECT user_id FROM shopping_carts
+            WHERE user_id IN (:ids) AND updated_at < :cutoff
+            FOR UPDATE""";
+    private static final String EXPIRE_CARTS = """
+            UPDATE shopping_carts SET version = version + 1, updated_at = CURRENT_TIMESTAMP
+            WHERE user_id IN (:ids)""";
+    private static final String DELETE_ITEMS = """
+            DELETE FROM cart_items WHERE shopping_cart_id IN (:ids)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter itemsRemoved;
+    private final Counter cartsExpired;
+    private final Counter chunksFailed;
+    private final DistributionSummary itemsRemovedPerRun;
+    private final Timer chunkDuration;
+
+    @Value("${cart.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cart.expiry.ttl:30d}")
+    private Duration ttl;
+
+    @Value("${cart.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${cart.expiry.pause-between-chunks:100ms}")
+    private Duration pauseBetweenChunks;
+
+    @Value("${cart.expiry.max-chunks-per-run:1000}")
+    private int maxChunksPerRun;
+
+    public CartExpiryJob(NamedParameterJdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.itemsRemoved = Counter.builder("cart.expiry.items.removed")
+                .description("Cart items removed from carts idle beyond the TTL")
+                .register(meterRegistry);
+        this.cartsExpired = Counter.builder("cart.expiry.carts.expired")
+                .description("Idle carts whose items were removed")
+                .register(meterRegistry);
+        this.chunksFailed = Counter.builder("cart.expiry.chunks.failed")
+                .register(meterRegistry);
+        this.itemsRemovedPerRun = DistributionSummary.builder("cart.expiry.run.items.removed")
+                .description("Cart items removed per expiry run")
+                .register(meterRegistry);
+        this.chunkDuration = Timer.builder("cart.expiry.chunk.duration")
+                .register(meterRegistry);
+        Gauge.builder("cart.expiry.run.active", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether a cart expiry run is in progress")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${cart.expiry.cron:0 30 * * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    public ExpiryResult run() {
+        if (!running.compareAndSet(false, true)) {
+            return new ExpiryResult(0, 0);
+        }
+        long carts = 0;
+        long items = 0;
+        try {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(ttl));
+            long after = 0;
+            for (int chunks = 0; chunks < maxChunksPerRun; chunks++) {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_IDLE_CARTS,
+                        new MapSqlParameterSource("after", after)
+                                .addValue("cutoff", cutoff)
+                                .addValue("limit", chunkSize),
+                        Long.class);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                after = ids.get(ids.size() - 1);
+                ExpiryResult chunk = expireChunk(ids, cutoff);
+                carts += chunk.carts();
+                items += chunk.items();
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+                pause();
+            }
+            log.info("Removed {} items from {} carts idle since {}", items, carts, cutoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cart expiry run interrupted after removing {} items", items);
+        } finally {
+            itemsRemovedPerRun.record(items);
+            running.set(false);
+        }
+        return new ExpiryResult(carts, items);
+    }
+
+    private ExpiryResult expireChunk(List<Long> ids, Timestamp cutoff) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            ExpiryResult result = transactionTemplate.execute(status -> {
+                List<Long> idle = jdbcTemplate.queryForList(LOCK_IDLE_CARTS,
+                        new MapSqlParameterSource("ids", ids).addValue("cutoff", cutoff),
+                        Long.class);
+                if (idle.isEmpty()) {
+                    return new ExpiryResult(0, 0);
+                }
+                MapSqlParameterSource byIds = new MapSqlParameterSource("ids", idle);
+                int removed = jdbcTemplate.update(DELETE_ITEMS, byIds);
+                jdbcTemplate.update(EXPIRE_CARTS, byIds);
+                return new ExpiryResult(idle.size(), removed);
+            });
+            cartsExpired.increment(result.carts());
+            itemsRemoved.increment(result.items());
+            return result;
+        } catch (DataAccessException e) {
+            chunksFailed.increment();
+            log.warn("Can't expire a chunk of {} carts, they will be retried on the next run",
+                    ids.size(), e);
+            return new ExpiryResult(0, 0);
+        } finally {
+            sample.stop(chunkDuration);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (!pauseBetweenChunks.isZero()) {
+            Thread.sleep(pauseBetweenChunks.toMillis());
+        }
+    }
+
+    public record ExpiryResult(long carts, long items) {
+    }
+}
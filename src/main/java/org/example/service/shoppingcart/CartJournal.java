@@ -0,0 +1,148 @@
+package org.example.service.shoppingcart;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+final class CartJournal implements AutoCloseable {
+    private static final Pattern SEGMENT = Pattern.compile("cart-journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> closedSegments = new ArrayList<>();
+    private long sequence;
+    private FileChannel channel;
+    private boolean segmentWritten;
+
+    CartJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            closedSegments.addAll(segments());
+            sequence = closedSegments.isEmpty() ? 0 : sequenceOf(closedSegments.get(
+                    closedSegments.size() - 1));
+            openNextSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open cart journal in " + directory, e);
+        }
+    }
+
+    synchronized List<Entry> readClosedSegments() {
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : closedSegments) {
+            try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+                lines.map(Entry::parse)
+                        .filter(entry -> entry != null)
+                        .forEach(entries::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't read cart journal " + segment, e);
+            }
+        }
+        return entries;
+    }
+
+    synchronized void append(List<Entry> entries) {
+        StringBuilder text = new StringBuilder();
+        entries.forEach(entry -> text.append(entry.format()).append('\n'));
+        ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            segmentWritten = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't append to cart journal", e);
+        }
+    }
+
+    synchronized List<Path> rotate() {
+        if (!segmentWritten) {
+            return List.copyOf(closedSegments);
+        }
+        try {
+            channel.close();
+            closedSegments.add(segmentPath(sequence));
+            openNextSegment();
+            return List.copyOf(closedSegments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't rotate cart journal", e);
+        }
+    }
+
+    synchronized void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                closedSegments.remove(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't delete cart journal " + segment, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void openNextSegment() throws IOException {
+        sequence++;
+        segmentWritten = false;
+        channel = FileChannel.open(segmentPath(sequence), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT.matcher(file.getFileName().toString()).matches())
+                    .sorted((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)))
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segmentSequence) {
+        return directory.resolve("cart-journal-" + segmentSequence + ".log");
+    }
+
+    private static long sequenceOf(Path segment) {
+        Matcher matcher = SEGMENT.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a cart journal segment: " + segment);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    record Entry(long userId, long version, long itemId, long bookId, int quantity) {
+        String format() {
+            return userId + "," + version + "," + itemId + "," + bookId + "," + quantity;
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split(",");
+            if (fields.length != 5) {
+                return null;
+            }
+            try {
+                return new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]), Long.parseLong(fields[3]),
+                        Integer.parseInt(fields[4]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.service.shoppingcart;
 
+import org.example.dto.cartItem.CartBatchRequestDto;
 import org.example.dto.cartItem.CartItemRequestDto;
 import org.example.dto.cartItem.CartItemUpdateDto;
 import org.example.dto.shoppingcart.ShoppingCartDto;
@@ -8,12 +9,20 @@ import org.example.model.User;
 public interface ShoppingCartService {
     ShoppingCartDto getByUserId(Long authenticationId);
 
-    ShoppingCartDto save(Long authenticationId, CartItemRequestDto requestDto);
+    Long getVersion(Long authenticationId);
+
+    ShoppingCartDto save(Long authenticationId, CartItemRequestDto requestDto,
+                         Long expectedVersion);
+
+    void addItem(Long authenticationId, CartItemRequestDto requestDto, Long expectedVersion);
+
+    ShoppingCartDto applyBatch(Long authenticationId, CartBatchRequestDto requestDto,
+                               Long expectedVersion);
 
     void saveShoppingCartForUser(User user);
 
     ShoppingCartDto update(Long authenticationId, Long cartItemId,
-                           CartItemUpdateDto updateDto);
+                           CartItemUpdateDto updateDto, Long expectedVersion);
 
-    void deleteById(Long authenticationId, Long id);
+    void deleteById(Long authenticationId, Long id, Long expectedVersion);
 }
@@ -1,24 +1,36 @@
 package org.example.service.shoppingcart;
 
+import org.example.dto.cartItem.CartBatchRequestDto;
+import org.example.dto.cartItem.CartItemBatchOperationDto;
+import org.example.dto.cartItem.CartItemOperation;
 import org.example.dto.cartItem.CartItemRequestDto;
 import org.example.dto.cartItem.CartItemUpdateDto;
 import org.example.dto.shoppingcart.ShoppingCartDto;
-import org.example.model.Book;
 import org.example.model.CartItem;
 import org.example.model.ShoppingCart;
 import org.example.model.User;
 import org.example.exception.EntityNotFoundException;
+import org.example.exception.PreconditionFailedException;
 import org.example.mapper.CartItemMapper;
 import org.example.repository.BookRepository;
 import org.example.repository.CartItemRepository;
 import org.example.repository.ShoppingCartRepository;
+import org.example.retry.RetryOnConflict;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Transactional
 @RequiredArgsConstructor
 @Service
+@ConditionalOnProperty(name = "cart.storage", havingValue = "database", matchIfMissing = true)
 public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final BookRepository bookRepository;
@@ -34,30 +46,62 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     }
 
     @Override
-    public ShoppingCartDto save(Long authenticationId, CartItemRequestDto requestDto) {
-        ShoppingCart shoppingCart = getShoppingCart(authenticationId);
-
-        Book book = bookRepository.findById(requestDto.getBookId())
+    public Long getVersion(Long authenticationId) {
+        return shoppingCartRepository.findVersionByUserId(authenticationId)
                 .orElseThrow(() -> new EntityNotFoundException(
-                        "Can't find book by id " + requestDto.getBookId()));
-
-        CartItem cartItem = shoppingCart.getCartItems().stream()
-                .filter(item -> item.getBook().getId().equals(book.getId()))
-                .findFirst()
-                .orElse(null);
-
-        if (cartItem != null) {
-            cartItem.setQuantity(cartItem.getQuantity() + requestDto.getQuantity());
-        } else {
-            cartItem = new CartItem();
-            cartItem.setBook(book);
-            cartItem.setShoppingCart(shoppingCart);
-            cartItem.setQuantity(requestDto.getQuantity());
-            shoppingCart.getCartItems().add(cartItem);
+                        "Can't get user by Id " + authenticationId));
+    }
+
+    @Override
+    @RetryOnConflict
+    public ShoppingCartDto save(Long authenticationId, CartItemRequestDto requestDto,
+                                Long expectedVersion) {
+        addItem(authenticationId, requestDto, expectedVersion);
+        return getByUserId(authenticationId);
+    }
+
+    @Override
+    @RetryOnConflict
+    public void addItem(Long authenticationId, CartItemRequestDto requestDto,
+                        Long expectedVersion) {
+        incrementVersion(authenticationId, expectedVersion);
+        if (bookRepository.findCachedTitleById(requestDto.getBookId()).isEmpty()) {
+            throw new EntityNotFoundException(
+                    "Can't find book by id " + requestDto.getBookId());
         }
+        cartItemRepository.addQuantity(authenticationId, requestDto.getBookId(),
+                requestDto.getQuantity());
+    }
 
-        cartItemRepository.save(cartItem);
-        return cartItemMapper.toDto(shoppingCart);
+    @Override
+    @RetryOnConflict
+    public ShoppingCartDto applyBatch(Long authenticationId, CartBatchRequestDto requestDto,
+                                      Long expectedVersion) {
+        incrementVersion(authenticationId, expectedVersion);
+        List<CartItemBatchOperationDto> operations = requestDto.getOperations();
+        Set<Long> bookIds = operations.stream()
+                .filter(operation -> operation.getOp() == CartItemOperation.ADD)
+                .map(CartItemBatchOperationDto::getBookId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!bookIds.isEmpty()) {
+            Set<Long> missing = new LinkedHashSet<>(bookIds);
+            missing.removeAll(bookRepository.findExistingIds(bookIds));
+            if (!missing.isEmpty()) {
+                throw new EntityNotFoundException("Can't find books by ids " + missing);
+            }
+        }
+
+        int from = 0;
+        while (from < operations.size()) {
+            CartItemOperation op = operations.get(from).getOp();
+            int to = from + 1;
+            while (to < operations.size() && operations.get(to).getOp() == op) {
+                to++;
+            }
+            apply(authenticationId, op, operations.subList(from, to));
+            from = to;
+        }
+        return getByUserId(authenticationId);
     }
 
     @Override
@@ -68,8 +112,10 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     }
 
     @Override
-    public ShoppingCartDto update(Long authenticationId, Long cartItemId, CartItemUpdateDto updateDto) {
-        ShoppingCart shoppingCart = getShoppingCart(authenticationId);
+    @RetryOnConflict
+    public ShoppingCartDto update(Long authenticationId, Long cartItemId,
+                                  CartItemUpdateDto updateDto, Long expectedVersion) {
+        ShoppingCart shoppingCart = getShoppingCart(authenticationId, expectedVersion);
 
         CartItem cartItem = cartItemRepository
                 .findByIdAndShoppingCartId(cartItemId, shoppingCart.getId())
@@ -80,8 +126,9 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     }
 
     @Override
-    public void deleteById(Long authenticationId, Long id) {
-        ShoppingCart shoppingCart = getShoppingCart(authenticationId);
+    @RetryOnConflict
+    public void deleteById(Long authenticationId, Long id, Long expectedVersion) {
+        ShoppingCart shoppingCart = getShoppingCart(authenticationId, expectedVersion);
 
         CartItem cartItem = cartItemRepository
                 .findByIdAndShoppingCartId(id, shoppingCart.getId())
@@ -90,8 +137,49 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
         shoppingCart.getCartItems().remove(cartItem);
     }
 
-    private ShoppingCart getShoppingCart(Long authenticationId) {
-        return shoppingCartRepository.findByUserId(authenticationId)
+    private void apply(Long shoppingCartId, CartItemOperation op,
+                       List<CartItemBatchOperationDto> operations) {
+        switch (op) {
+            case ADD -> cartItemRepository.addQuantities(shoppingCartId, operations.stream()
+                    .collect(Collectors.toMap(CartItemBatchOperationDto::getBookId,
+                            CartItemBatchOperationDto::getQuantity, Integer::sum,
+                            LinkedHashMap::new)));
+            case UPDATE -> {
+                Set<Long> missing = cartItemRepository.updateQuantities(shoppingCartId,
+                        operations.stream().collect(Collectors.toMap(
+                                CartItemBatchOperationDto::getCartItemId,
+                                CartItemBatchOperationDto::getQuantity,
+                                (first, last) -> last, LinkedHashMap::new)));
+                if (!missing.isEmpty()) {
+                    throw new EntityNotFoundException("Can't find cart items by ids " + missing);
+                }
+            }
+            case REMOVE -> {
+                Set<Long> itemIds = operations.stream()
+                        .map(CartItemBatchOperationDto::getCartItemId)
+                        .collect(Collectors.toCollection(HashSet::new));
+                if (cartItemRepository.deleteItems(shoppingCartId, itemIds) != itemIds.size()) {
+                    throw new EntityNotFoundException("Can't find cart items by ids " + itemIds);
+                }
+            }
+        }
+    }
+
+    private void incrementVersion(Long authenticationId, Long expectedVersion) {
+        int updated = expectedVersion == null
+                ? shoppingCartRepository.incrementVersionByUserId(authenticationId)
+                : shoppingCartRepository.incrementVersionByUserIdAndVersion(
+                        authenticationId, expectedVersion);
+        if (updated == 0) {
+            Long version = getVersion(authenticationId);
+            throw new PreconditionFailedException(
+                    "Shopping cart version is " + version + ", not " + expectedVersion);
+        }
+    }
+
+    private ShoppingCart getShoppingCart(Long authenticationId, Long expectedVersion) {
+        incrementVersion(authenticationId, expectedVersion);
+        return shoppingCartRepository.findWithItemsByUserId(authenticationId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Can't get user by Id " + authenticationId));
     }
@@ -0,0 +1,407 @@
+package org.example.service.shoppingcart;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.exception.EntityNotFoundException;
+import org.example.exception.PreconditionFailedException;
+import org.example.repository.BookRepository;
+import org.example.repository.ShoppingCartRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cart.storage", havingValue = "write-behind")
+public class WriteBehindCartStore {
+    private static final String DELETE_ITEM = "DELETE FROM cart_items WHERE id = ?";
+    private static final String UPDATE_ITEM = """
+            UPDATE cart_items SET quantity = ?, version = version + 1 WHERE id = ?""";
+    private static final String INSERT_ITEM = """
+            INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, version)
+            VALUES (?, ?, ?, ?, 0)""";
+    private static final String UPDATE_VERSION = """
+            UPDATE shopping_carts SET version = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE user_id = ?""";
+
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, CachedCart> carts = new ConcurrentHashMap<>();
+    private final AtomicLong itemIds = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock[] stripes;
+    private CartJournal journal;
+
+    @Value("${cart.write-behind.journal-path:data/cart-journal}")
+    private Path journalPath;
+
+    @Value("${cart.write-behind.journal-fsync:true}")
+    private boolean journalFsync;
+
+    @Value("${cart.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cart.write-behind.idle-timeout:30m}")
+    private Duration idleTimeout;
+
+    public WriteBehindCartStore(ShoppingCartRepository shoppingCartRepository,
+                                BookRepository bookRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cart.write-behind.lock-stripes:64}") int lockStripes) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void replayJournal() {
+        journal = new CartJournal(journalPath, journalFsync);
+        Long maxItemId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM cart_items", Long.class);
+        itemIds.set(maxItemId == null ? 0 : maxItemId);
+
+        List<CartJournal.Entry> entries = journal.readClosedSegments();
+        for (CartJournal.Entry entry : entries) {
+            itemIds.accumulateAndGet(entry.itemId(), Math::max);
+            CachedCart cart;
+            try {
+                cart = cart(entry.userId());
+            } catch (EntityNotFoundException e) {
+                continue;
+            }
+            if (entry.version() <= cart.persistedVersion) {
+                continue;
+            }
+            cart.lines.values().removeIf(line -> line.itemId() == entry.itemId());
+            if (entry.quantity() > 0) {
+                cart.lines.put(entry.bookId(), new CartLine(entry.itemId(), entry.bookId(),
+                        bookTitle(entry.bookId()), entry.quantity()));
+            }
+            cart.version = Math.max(cart.version, entry.version());
+            cart.dirty = true;
+        }
+        if (!entries.isEmpty()) {
+            log.info("Replayed {} cart journal entries for {} carts", entries.size(), carts.size());
+        }
+        flush();
+    }
+
+    public CartSnapshot get(Long userId) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            return cart(userId).snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CartSnapshot mutate(Long userId, Consumer<CartEditor> change) {
+        return mutate(userId, null, change);
+    }
+
+    public CartSnapshot mutate(Long userId, Long expectedVersion, Consumer<CartEditor> change) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        try {
+            CachedCart cart = cart(userId);
+            if (expectedVersion != null && expectedVersion != cart.version) {
+                throw new PreconditionFailedException("Shopping cart version is " + cart.version
+                        + ", not " + expectedVersion);
+            }
+            CartEditor editor = new CartEditor(cart.lines);
+            change.accept(editor);
+
+            List<CartJournal.Entry> entries = new ArrayList<>();
+            long version = cart.version + 1;
+            cart.lines.forEach((bookId, line) -> {
+                if (!editor.lines.containsKey(bookId)
+                        || editor.lines.get(bookId).itemId() != line.itemId()) {
+                    entries.add(new CartJournal.Entry(userId, version, line.itemId(), bookId, 0));
+                }
+            });
+            editor.lines.forEach((bookId, line) -> {
+                if (!line.equals(cart.lines.get(bookId))) {
+                    entries.add(new CartJournal.Entry(userId, version, line.itemId(), bookId,
+                            line.quantity()));
+                }
+            });
+            journal.append(entries);
+
+            cart.lines.clear();
+            cart.lines.putAll(editor.lines);
+            cart.version = version;
+            cart.dirty = true;
+            return cart.snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flushForCheckout(Long userId) {
+        ReentrantLock lock = lockFor(userId);
+        lock.lock();
+        flushLock.lock();
+        CachedCart cart = carts.get(userId);
+        try {
+            if (cart != null && cart.dirty) {
+                write(List.of(cart.prepareFlush()));
+            }
+        } catch (RuntimeException e) {
+            cart.dirty = true;
+            lock.unlock();
+            throw e;
+        } finally {
+            flushLock.unlock();
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            carts.remove(userId);
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        carts.remove(userId);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Path> segments = journal.rotate();
+            List<PendingFlush> pending = new ArrayList<>();
+            boolean complete = true;
+            for (CachedCart cart : carts.values()) {
+                ReentrantLock lock = lockFor(cart.userId);
+                if (!lock.tryLock()) {
+                    complete = false;
+                    continue;
+                }
+                try {
+                    if (cart.dirty) {
+                        pending.add(cart.prepareFlush());
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<PendingFlush> batch = pending.subList(from,
+                        Math.min(from + batchSize, pending.size()));
+                try {
+                    write(batch);
+                } catch (DataAccessException e) {
+                    pending.subList(from, pending.size()).forEach(flush -> flush.cart().dirty = true);
+                    log.warn("Can't flush {} carts, they will be retried on the next flush",
+                            pending.size() - from, e);
+                    complete = false;
+                    break;
+                }
+            }
+            if (complete) {
+                journal.delete(segments);
+            }
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<PendingFlush> batch) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> versions = new ArrayList<>();
+        for (PendingFlush flush : batch) {
+            flush.persisted().forEach((itemId, quantity) -> {
+                if (flush.lines().stream().noneMatch(line -> line.itemId() == itemId)) {
+                    deletes.add(new Object[] {itemId});
+                }
+            });
+            for (CartLine line : flush.lines()) {
+                Integer persisted = flush.persisted().get(line.itemId());
+                if (persisted == null) {
+                    inserts.add(new Object[] {line.itemId(), flush.cart().userId, line.bookId(),
+                            line.quantity()});
+                } else if (persisted != line.quantity()) {
+                    updates.add(new Object[] {line.quantity(), line.itemId()});
+                }
+            }
+            versions.add(new Object[] {flush.version(), flush.cart().userId});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_ITEM, deletes);
+            jdbcTemplate.batchUpdate(UPDATE_ITEM, updates);
+            jdbcTemplate.batchUpdate(INSERT_ITEM, inserts);
+            jdbcTemplate.batchUpdate(UPDATE_VERSION, versions);
+        });
+
+        for (PendingFlush flush : batch) {
+            Map<Long, Integer> persisted = new HashMap<>();
+            flush.lines().forEach(line -> persisted.put(line.itemId(), line.quantity()));
+            flush.cart().persisted = persisted;
+            flush.cart().persistedVersion = flush.version();
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        carts.values().removeIf(cart -> {
+            ReentrantLock lock = lockFor(cart.userId);
+            if (!lock.tryLock()) {
+                return false;
+            }
+            try {
+                return !cart.dirty && cart.lastAccess < cutoff;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private CachedCart cart(Long userId) {
+        CachedCart cart = carts.computeIfAbsent(userId, this::load);
+        cart.lastAccess = System.nanoTime();
+        return cart;
+    }
+
+    private CachedCart load(Long userId) {
+        return shoppingCartRepository.findByUserId(userId)
+                .map(shoppingCart -> {
+                    CachedCart cart = new CachedCart(userId);
+                    cart.version = Objects.requireNonNullElse(shoppingCart.getVersion(), 0L);
+                    cart.persistedVersion = cart.version;
+                    shoppingCart.getCartItems().forEach(item -> {
+                        cart.lines.put(item.getBook().getId(), new CartLine(item.getId(),
+                                item.getBook().getId(), item.getBook().getTitle(),
+                                item.getQuantity()));
+                        cart.persisted.put(item.getId(), item.getQuantity());
+                    });
+                    return cart;
+                })
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't get user by Id " + userId));
+    }
+
+    private String bookTitle(Long bookId) {
+        return bookRepository.findCachedTitleById(bookId).orElse(null);
+    }
+
+    private ReentrantLock lockFor(Long userId) {
+        return stripes[Long.hashCode(userId * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+    }
+
+    public record CartLine(long itemId, long bookId, String bookTitle, int quantity) {
+    }
+
+    public record CartSnapshot(long userId, long version, List<CartLine> lines) {
+    }
+
+    public final class CartEditor {
+        private final Map<Long, CartLine> lines;
+
+        private CartEditor(Map<Long, CartLine> current) {
+            this.lines = new LinkedHashMap<>(current);
+        }
+
+        public void add(Long bookId, String bookTitle, int quantity) {
+            CartLine line = lines.get(bookId);
+            lines.put(bookId, line == null
+                    ? new CartLine(itemIds.incrementAndGet(), bookId, bookTitle, quantity)
+                    : new CartLine(line.itemId(), bookId, line.bookTitle(),
+                            line.quantity() + quantity));
+        }
+
+        public boolean update(Long itemId, int quantity) {
+            for (CartLine line : lines.values()) {
+                if (line.itemId() == itemId) {
+                    lines.put(line.bookId(), new CartLine(itemId, line.bookId(),
+                            line.bookTitle(), quantity));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean remove(Long itemId) {
+            return lines.values().removeIf(line -> line.itemId() == itemId);
+        }
+    }
+
+    private record PendingFlush(CachedCart cart, long version, List<CartLine> lines,
+                                Map<Long, Integer> persisted) {
+    }
+
+    private static final class CachedCart {
+        private final Long userId;
+        private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+        private Map<Long, Integer> persisted = new HashMap<>();
+        private long version;
+        private long persistedVersion;
+        private volatile boolean dirty;
+        private volatile long lastAccess = System.nanoTime();
+
+        private CachedCart(Long userId) {
+            this.userId = userId;
+        }
+
+        private CartSnapshot snapshot() {
+            return new CartSnapshot(userId, version, List.copyOf(lines.values()));
+        }
+
+        private PendingFlush prepareFlush() {
+            dirty = false;
+            return new PendingFlush(this, version, List.copyOf(lines.values()), persisted);
+        }
+    }
+}
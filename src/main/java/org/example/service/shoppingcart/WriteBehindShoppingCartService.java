@@ -0,0 +1,121 @@
+package org.example.service.shoppingcart;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.book.BookDto;
+import org.example.dto.cartItem.CartBatchRequestDto;
+import org.example.dto.cartItem.CartItemBatchOperationDto;
+import org.example.dto.cartItem.CartItemOperation;
+import org.example.dto.cartItem.CartItemRequestDto;
+import org.example.dto.cartItem.CartItemUpdateDto;
+import org.example.dto.shoppingcart.ShoppingCartDto;
+import org.example.exception.EntityNotFoundException;
+import org.example.mapper.CartItemMapper;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.example.repository.BookRepository;
+import org.example.repository.ShoppingCartRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cart.storage", havingValue = "write-behind")
+public class WriteBehindShoppingCartService implements ShoppingCartService {
+    private final WriteBehindCartStore cartStore;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final BookRepository bookRepository;
+    private final CartItemMapper cartItemMapper;
+
+    @Override
+    public ShoppingCartDto getByUserId(Long authenticationId) {
+        return cartItemMapper.toDto(cartStore.get(authenticationId));
+    }
+
+    @Override
+    public Long getVersion(Long authenticationId) {
+        return cartStore.get(authenticationId).version();
+    }
+
+    @Override
+    public ShoppingCartDto save(Long authenticationId, CartItemRequestDto requestDto,
+                                Long expectedVersion) {
+        return cartItemMapper.toDto(add(authenticationId, requestDto, expectedVersion));
+    }
+
+    @Override
+    public void addItem(Long authenticationId, CartItemRequestDto requestDto,
+                        Long expectedVersion) {
+        add(authenticationId, requestDto, expectedVersion);
+    }
+
+    @Override
+    public ShoppingCartDto applyBatch(Long authenticationId, CartBatchRequestDto requestDto,
+                                      Long expectedVersion) {
+        Set<Long> bookIds = requestDto.getOperations().stream()
+                .filter(operation -> operation.getOp() == CartItemOperation.ADD)
+                .map(CartItemBatchOperationDto::getBookId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, String> titles = bookIds.isEmpty() ? Map.of()
+                : bookRepository.findDtosByIdIn(bookIds).stream()
+                        .collect(Collectors.toMap(BookDto::getId, BookDto::getTitle));
+        Set<Long> missing = new LinkedHashSet<>(bookIds);
+        missing.removeAll(titles.keySet());
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException("Can't find books by ids " + missing);
+        }
+
+        return cartItemMapper.toDto(cartStore.mutate(authenticationId, expectedVersion, cart -> {
+            for (CartItemBatchOperationDto operation : requestDto.getOperations()) {
+                switch (operation.getOp()) {
+                    case ADD -> cart.add(operation.getBookId(), titles.get(operation.getBookId()),
+                            operation.getQuantity());
+                    case UPDATE -> requireItem(cart.update(operation.getCartItemId(),
+                            operation.getQuantity()), operation.getCartItemId());
+                    case REMOVE -> requireItem(cart.remove(operation.getCartItemId()),
+                            operation.getCartItemId());
+                }
+            }
+        }));
+    }
+
+    @Override
+    public void saveShoppingCartForUser(User user) {
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setUser(user);
+        shoppingCartRepository.save(shoppingCart);
+    }
+
+    @Override
+    public ShoppingCartDto update(Long authenticationId, Long cartItemId,
+                                  CartItemUpdateDto updateDto, Long expectedVersion) {
+        return cartItemMapper.toDto(cartStore.mutate(authenticationId, expectedVersion,
+                cart -> requireItem(cart.update(cartItemId, updateDto.getQuantity()),
+                        cartItemId)));
+    }
+
+    @Override
+    public void deleteById(Long authenticationId, Long id, Long expectedVersion) {
+        cartStore.mutate(authenticationId, expectedVersion,
+                cart -> requireItem(cart.remove(id), id));
+    }
+
+    private WriteBehindCartStore.CartSnapshot add(Long authenticationId,
+                                                  CartItemRequestDto requestDto,
+                                                  Long expectedVersion) {
+        String title = bookRepository.findCachedTitleById(requestDto.getBookId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find book by id " + requestDto.getBookId()));
+        return cartStore.mutate(authenticationId, expectedVersion, cart ->
+                cart.add(requestDto.getBookId(), title, requestDto.getQuantity()));
+    }
+
+    private void requireItem(boolean found, Long cartItemId) {
+        if (!found) {
+            throw new EntityNotFoundException("Can't find cart item by id " + cartItemId);
+        }
+    }
+}
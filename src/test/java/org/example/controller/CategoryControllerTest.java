@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.example.dto.category.BookDtoWithoutCategoryIds;
 import org.example.dto.category.CategoryDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.model.Book;
 import org.example.model.Category;
 import org.example.repository.BookRepository;
@@ -206,14 +207,17 @@ class CategoryControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        List<BookDtoWithoutCategoryIds> books = objectMapper.readValue(
+        CursorSliceDto<BookDtoWithoutCategoryIds> slice = objectMapper.readValue(
                 json,
-                new TypeReference<List<BookDtoWithoutCategoryIds>>() {}
+                new TypeReference<CursorSliceDto<BookDtoWithoutCategoryIds>>() {}
         );
+        List<BookDtoWithoutCategoryIds> books = slice.getContent();
 
         assertThat(books).hasSize(1);
+        assertThat(slice.isHasNext()).isFalse();
 
         BookDtoWithoutCategoryIds actual = books.get(0);
+        assertThat(actual.getId()).isEqualTo(savedBook.getId());
         assertThat(actual.getTitle()).isEqualTo(savedBook.getTitle());
         assertThat(actual.getAuthor()).isEqualTo(savedBook.getAuthor());
         assertThat(actual.getIsbn()).isEqualTo(savedBook.getIsbn());
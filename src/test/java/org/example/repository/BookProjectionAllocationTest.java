@@ -0,0 +1,81 @@
+package org.example.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.example.dto.book.BookDto;
+import org.example.mapper.BookMapper;
+import org.example.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+@DataJpaTest
+class BookProjectionAllocationTest {
+    private static final int BOOKS = 1000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private final ThreadMXBean threadMxBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+    private final Pageable pageable = PageRequest.of(0, BOOKS);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author " + i);
+            book.setIsbn("isbn-" + i);
+            book.setPrice(BigDecimal.valueOf(i));
+            book.setDescription("Description of book " + i);
+            books.add(book);
+        }
+        bookRepository.saveAllAndFlush(books);
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findAllDtos should allocate less than loading entities and mapping them")
+    void projectionAllocatesLessThanEntityMapping() {
+        long entityBytes = measure(() -> bookRepository.findAll(pageable).map(bookMapper::toDto));
+        long projectionBytes = measure(() -> bookRepository.findAllDtos(pageable));
+
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private long measure(Supplier<Page<BookDto>> query) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            assertThat(query.get()).hasSize(BOOKS);
+            entityManager.clear();
+        }
+        long total = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long before = threadMxBean.getCurrentThreadAllocatedBytes();
+            Page<BookDto> page = query.get();
+            entityManager.flush();
+            total += threadMxBean.getCurrentThreadAllocatedBytes() - before;
+            assertThat(page).hasSize(BOOKS);
+            entityManager.clear();
+        }
+        return total / MEASURED_ROUNDS;
+    }
+}
@@ -1,13 +1,26 @@
 package org.example.repository;
 
+import org.example.dto.book.BookDto;
+import org.example.dto.book.CategoryMatch;
+import org.example.dto.category.BookDtoWithoutCategoryIds;
 import org.example.model.Book;
 import org.example.model.Category;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
@@ -18,6 +31,9 @@ class BookRepositoryTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     @DisplayName("findByCategoriesId should return books linked to this category")
     void testFindByCategoriesId() {
@@ -67,4 +83,236 @@ class BookRepositoryTest {
 
         assertThat(result).isEmpty();
     }
+
+    @Test
+    @DisplayName("findAllBy should continue after the last keyset position")
+    void testFindAllBy_Keyset() {
+        for (String title : List.of("C", "A", "B")) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Author");
+            book.setIsbn("isbn-" + title);
+            book.setPrice(BigDecimal.ONE);
+            bookRepository.save(book);
+        }
+        Sort sort = Sort.by("title");
+
+        Window<Book> first = bookRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(2));
+
+        assertThat(first.getContent()).extracting(Book::getTitle).containsExactly("A", "B");
+        assertThat(first.hasNext()).isTrue();
+
+        Window<Book> second = bookRepository.findAllBy(
+                first.positionAt(first.size() - 1), sort, Limit.of(2));
+
+        assertThat(second.getContent()).extracting(Book::getTitle).containsExactly("C");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("streamAll should return books ordered by id with their category links")
+    void testStreamAll_WithCategoryLinks() {
+        Category category = new Category();
+        category.setName("Fiction");
+        Category savedCategory = categoryRepository.save(category);
+        for (String title : List.of("B", "A")) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Author");
+            book.setIsbn("isbn-" + title);
+            book.setPrice(BigDecimal.ONE);
+            book.getCategories().add(savedCategory);
+            bookRepository.save(book);
+        }
+
+        List<Book> books;
+        try (Stream<Book> stream = bookRepository.streamAll()) {
+            books = stream.toList();
+        }
+        List<BookCategoryLink> links = bookRepository.findCategoryLinks(
+                books.stream().map(Book::getId).toList());
+
+        assertThat(books).extracting(Book::getTitle).containsExactly("B", "A");
+        assertThat(links).hasSize(2)
+                .allSatisfy(link -> assertThat(link.getCategoryId())
+                        .isEqualTo(savedCategory.getId()));
+    }
+
+    @Test
+    @DisplayName("assignCategories and unassignCategories should rewrite links in bulk")
+    void testAssignAndUnassignCategories() {
+        Category category = new Category();
+        category.setName("Fiction");
+        Category savedCategory = categoryRepository.save(category);
+        Book linked = new Book();
+        linked.setTitle("Linked");
+        linked.setAuthor("Author");
+        linked.setIsbn("isbn-linked");
+        linked.setPrice(BigDecimal.ONE);
+        linked.getCategories().add(savedCategory);
+        Book unlinked = new Book();
+        unlinked.setTitle("Unlinked");
+        unlinked.setAuthor("Author");
+        unlinked.setIsbn("isbn-unlinked");
+        unlinked.setPrice(BigDecimal.ONE);
+        List<Long> bookIds = bookRepository.saveAllAndFlush(List.of(linked, unlinked)).stream()
+                .map(Book::getId)
+                .toList();
+
+        int assigned = bookRepository.assignCategories(bookIds, List.of(savedCategory.getId()));
+        int unassigned = bookRepository.unassignCategories(bookIds, List.of(savedCategory.getId()));
+
+        assertThat(assigned).isEqualTo(1);
+        assertThat(unassigned).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Book DTOs should carry a version that grows with each update")
+    void testFindDtosByIdIn_CarriesVersion() {
+        Book book = new Book();
+        book.setTitle("Versioned");
+        book.setAuthor("Author");
+        book.setIsbn("isbn-versioned");
+        book.setPrice(BigDecimal.ONE);
+        Book saved = bookRepository.saveAndFlush(book);
+        Long initial = bookRepository.findDtosByIdIn(List.of(saved.getId())).get(0).getVersion();
+
+        saved.setPrice(BigDecimal.TEN);
+        bookRepository.saveAndFlush(saved);
+
+        assertThat(bookRepository.findDtosByIdIn(List.of(saved.getId())))
+                .extracting(BookDto::getVersion)
+                .containsExactly(initial + 1);
+    }
+
+    @Test
+    @DisplayName("DTO projections should return sorted pages and books of a category")
+    void testDtoProjections() {
+        Category category = new Category();
+        category.setName("Fiction");
+        Category savedCategory = categoryRepository.save(category);
+        for (String title : List.of("B", "A", "C")) {
+            Book book = new Book();
+            book.setTitle(title);
+            book.setAuthor("Author");
+            book.setIsbn("isbn-" + title);
+            book.setPrice(BigDecimal.ONE);
+            if (!title.equals("C")) {
+                book.getCategories().add(savedCategory);
+            }
+            bookRepository.save(book);
+        }
+
+        Page<BookDto> page = bookRepository.findAllDtos(
+                PageRequest.of(0, 2, Sort.by("title")));
+        List<BookDtoWithoutCategoryIds> firstSlice = bookRepository.findDtosByCategoryIdAfter(
+                savedCategory.getId(), 0L, Limit.of(1));
+        List<BookDtoWithoutCategoryIds> secondSlice = bookRepository.findDtosByCategoryIdAfter(
+                savedCategory.getId(), firstSlice.get(0).getId(), Limit.of(10));
+        List<BookDtoWithoutCategoryIds> streamed;
+        try (Stream<BookDtoWithoutCategoryIds> stream =
+                     bookRepository.streamDtosByCategoryId(savedCategory.getId())) {
+            streamed = stream.toList();
+        }
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(BookDto::getTitle).containsExactly("A", "B");
+        assertThat(firstSlice).extracting(BookDtoWithoutCategoryIds::getTitle)
+                .containsExactly("B");
+        assertThat(secondSlice).extracting(BookDtoWithoutCategoryIds::getTitle)
+                .containsExactly("A");
+        assertThat(streamed).extracting(BookDtoWithoutCategoryIds::getTitle)
+                .containsExactly("B", "A");
+    }
+
+    @Test
+    @DisplayName("Specifications should filter books and facets should count the matches")
+    void testSpecificationsAndFacets() {
+        Category fiction = new Category();
+        fiction.setName("Fiction");
+        fiction = categoryRepository.save(fiction);
+        Category classic = new Category();
+        classic.setName("Classic");
+        classic = categoryRepository.save(classic);
+        saveBook("Dune", "Herbert", "5", List.of(fiction));
+        saveBook("Dubliners", "Joyce", "30", List.of(fiction, classic));
+        saveBook("Emma", "Austen", "60", List.of(classic));
+
+        Specification<Book> allCategories = BookSpecifications.inCategories(
+                List.of(fiction.getId(), classic.getId()), CategoryMatch.ALL);
+        Specification<Book> anyCategory = BookSpecifications.inCategories(
+                List.of(fiction.getId(), classic.getId()), CategoryMatch.ANY);
+        Specification<Book> prefixAndPrice = BookSpecifications.titleStartsWith("Du")
+                .and(BookSpecifications.priceBetween(BigDecimal.TEN, null));
+
+        assertThat(bookRepository.findAllDtos(allCategories, PageRequest.of(0, 10)))
+                .extracting(BookDto::getTitle).containsExactly("Dubliners");
+        assertThat(bookRepository.findAllDtos(anyCategory, PageRequest.of(0, 2, Sort.by("title")))
+                .getTotalElements()).isEqualTo(3);
+        assertThat(bookRepository.findAllDtos(prefixAndPrice, PageRequest.of(0, 10)))
+                .extracting(BookDto::getTitle).containsExactly("Dubliners");
+        assertThat(bookRepository.countByCategory(BookSpecifications.titleStartsWith("Du")))
+                .isEqualTo(Map.of(fiction.getId(), 2L, classic.getId(), 1L));
+        assertThat(bookRepository.countByPriceBuckets(null,
+                List.of(BigDecimal.TEN, BigDecimal.valueOf(50))))
+                .containsExactly(1L, 1L, 1L);
+    }
+
+    @Test
+    @DisplayName("category link queries should agree with the join table statistics")
+    void testCategoryLinksAndStats() {
+        Category fiction = new Category();
+        fiction.setName("Fiction");
+        Category drama = new Category();
+        drama.setName("Drama");
+        categoryRepository.saveAll(List.of(fiction, drama));
+        saveBook("First", "Author", "10", List.of(fiction, drama));
+        saveBook("Second", "Author", "20", List.of(fiction));
+
+        List<BookCategoryLink> allLinks;
+        try (Stream<BookCategoryLink> stream = bookRepository.streamAllCategoryLinks()) {
+            allLinks = stream.toList();
+        }
+        List<BookCategoryLink> fictionLinks = bookRepository.findCategoryLinksByCategoryIds(
+                List.of(fiction.getId()));
+        List<CategoryBookStats> stats = bookRepository.findCategoryBookStats();
+
+        assertThat(allLinks).hasSize(3);
+        assertThat(fictionLinks).hasSize(2);
+        long fictionIdSum = fictionLinks.stream().mapToLong(BookCategoryLink::getBookId).sum();
+        assertThat(stats).anySatisfy(row -> {
+            assertThat(row.getCategoryId()).isEqualTo(fiction.getId());
+            assertThat(row.getBookCount()).isEqualTo(2L);
+            assertThat(row.getBookIdSum()).isEqualTo(fictionIdSum);
+        });
+        assertThat(bookRepository.findDtosByIdIn(fictionLinks.stream()
+                .map(BookCategoryLink::getBookId).toList()))
+                .extracting(BookDto::getTitle)
+                .containsExactly("First", "Second");
+    }
+
+    @Test
+    @DisplayName("deleteById should soft-delete a versioned book")
+    void testDeleteById_SoftDeletes() {
+        saveBook("Deleted", "Author", "10", List.of());
+        Long id = bookRepository.findAll().get(0).getId();
+
+        bookRepository.deleteById(id);
+        bookRepository.flush();
+
+        assertThat(bookRepository.findById(id)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT is_deleted AND deleted_at IS NOT NULL FROM books WHERE id = ?",
+                Boolean.class, id)).isTrue();
+    }
+
+    private void saveBook(String title, String author, String price, List<Category> categories) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn("isbn-" + title);
+        book.setPrice(new BigDecimal(price));
+        book.getCategories().addAll(categories);
+        bookRepository.save(book);
+    }
 }
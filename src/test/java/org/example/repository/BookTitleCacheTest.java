@@ -0,0 +1,54 @@
+package org.example.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.math.BigDecimal;
+import org.example.config.CacheConfig;
+import org.example.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import(CacheConfig.class)
+class BookTitleCacheTest {
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    @DisplayName("findCachedTitleById should cache found titles but never a missing book")
+    void testFindCachedTitleById_DoesNotCacheMisses() {
+        Book book = new Book();
+        book.setTitle("Cached title");
+        book.setAuthor("Author");
+        book.setIsbn("isbn-cached-title");
+        book.setPrice(BigDecimal.TEN);
+        Long nextId = entityManager.persistAndGetId(book, Long.class) + 1;
+
+        assertThat(bookRepository.findCachedTitleById(nextId)).isEmpty();
+        assertThat(cacheManager.getCache(CacheConfig.BOOK_TITLES).get(nextId)).isNull();
+
+        Book created = new Book();
+        created.setTitle("Created later");
+        created.setAuthor("Author");
+        created.setIsbn("isbn-created-later");
+        created.setPrice(BigDecimal.TEN);
+        assertThat(entityManager.persistAndGetId(created, Long.class)).isEqualTo(nextId);
+
+        assertThat(bookRepository.findCachedTitleById(nextId)).contains("Created later");
+        assertThat(cacheManager.getCache(CacheConfig.BOOK_TITLES).get(nextId, String.class))
+                .isEqualTo("Created later");
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.example.model.Book;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+class CartItemRepositoryTest {
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ShoppingCart cart;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("cart@example.com");
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        entityManager.persist(user);
+        cart = new ShoppingCart();
+        cart.setUser(user);
+        entityManager.persist(cart);
+        book = new Book();
+        book.setTitle("Book");
+        book.setAuthor("Author");
+        book.setIsbn("isbn-cart");
+        book.setPrice(BigDecimal.TEN);
+        entityManager.persist(book);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("deleteById should soft-delete a versioned cart")
+    void testDeleteById_SoftDeletesCart() {
+        shoppingCartRepository.deleteById(cart.getId());
+        shoppingCartRepository.flush();
+
+        assertThat(shoppingCartRepository.findById(cart.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT is_deleted AND deleted_at IS NOT NULL FROM shopping_carts WHERE user_id = ?",
+                Boolean.class, cart.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("addQuantity should insert the item once and then increase its quantity")
+    void testAddQuantity_InsertsThenIncrements() {
+        cartItemRepository.addQuantity(cart.getId(), book.getId(), 2);
+        cartItemRepository.addQuantity(cart.getId(), book.getId(), 3);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM cart_items WHERE shopping_cart_id = ? AND book_id = ?",
+                Integer.class, cart.getId(), book.getId())).containsExactly(5);
+    }
+
+    @Test
+    @DisplayName("batch operations should add, update and delete items with set-based SQL")
+    void testBatchOperations() {
+        Book other = new Book();
+        other.setTitle("Other");
+        other.setAuthor("Author");
+        other.setIsbn("isbn-other");
+        other.setPrice(BigDecimal.ONE);
+        entityManager.persistAndFlush(other);
+        cartItemRepository.addQuantity(cart.getId(), book.getId(), 1);
+
+        cartItemRepository.addQuantities(cart.getId(), Map.of(book.getId(), 2, other.getId(), 4));
+        Long itemId = itemId(other);
+
+        assertThat(quantity(book)).isEqualTo(3);
+        assertThat(quantity(other)).isEqualTo(4);
+        assertThat(cartItemRepository.updateQuantities(cart.getId(), Map.of(itemId, 7, -1L, 1)))
+                .containsExactly(-1L);
+        assertThat(quantity(other)).isEqualTo(7);
+        assertThat(cartItemRepository.deleteItems(cart.getId(), List.of(itemId, -1L)))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("cart_items should reject a second row for the same book in a cart")
+    void testUniqueBookPerCart() {
+        cartItemRepository.addQuantity(cart.getId(), book.getId(), 1);
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO cart_items (shopping_cart_id, book_id, quantity) VALUES (?, ?, 1)",
+                cart.getId(), book.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("incrementVersionByUserId should bump the cart version used as its ETag")
+    void testIncrementVersionByUserId() {
+        Long version = shoppingCartRepository.findVersionByUserId(cart.getId()).orElseThrow();
+
+        assertThat(shoppingCartRepository.incrementVersionByUserId(cart.getId())).isEqualTo(1);
+        assertThat(shoppingCartRepository.incrementVersionByUserId(-1L)).isZero();
+        assertThat(shoppingCartRepository.findVersionByUserId(cart.getId()))
+                .contains(version + 1);
+    }
+
+    private Long itemId(Book target) {
+        return jdbcTemplate.queryForObject(
+                "SELECT id FROM cart_items WHERE shopping_cart_id = ? AND book_id = ?",
+                Long.class, cart.getId(), target.getId());
+    }
+
+    private Integer quantity(Book target) {
+        return jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE shopping_cart_id = ? AND book_id = ?",
+                Integer.class, cart.getId(), target.getId());
+    }
+}
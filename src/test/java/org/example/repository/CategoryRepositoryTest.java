@@ -6,6 +6,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -18,6 +19,9 @@ class CategoryRepositoryTest {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     @DisplayName("Save should persist category")
     void testSaveCategory() {
@@ -70,4 +74,21 @@ class CategoryRepositoryTest {
                 .extracting(Category::getName)
                 .containsExactlyInAnyOrder("A", "B");
     }
+
+    @Test
+    @DisplayName("DeleteById should soft-delete a versioned category")
+    void testDeleteById_SoftDeletes() {
+        Category category = new Category();
+        category.setName("Deleted");
+        entityManager.persist(category);
+        entityManager.flush();
+
+        categoryRepository.deleteById(category.getId());
+        categoryRepository.flush();
+
+        assertThat(categoryRepository.findById(category.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT is_deleted AND deleted_at IS NOT NULL FROM categories WHERE id = ?",
+                Boolean.class, category.getId())).isTrue();
+    }
 }
@@ -0,0 +1,52 @@
+package org.example.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.math.BigDecimal;
+import org.example.model.Order;
+import org.example.model.Status;
+import org.example.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+class OrderRepositoryTest {
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("deleteById should soft-delete a versioned order")
+    void testDeleteById_SoftDeletes() {
+        User user = new User();
+        user.setEmail("order@example.com");
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        entityManager.persist(user);
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(Status.PENDING);
+        order.setTotal(BigDecimal.TEN);
+        order.setShippingAddress("Address");
+        Long id = entityManager.persistAndGetId(order, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+
+        orderRepository.deleteById(id);
+        orderRepository.flush();
+
+        assertThat(orderRepository.findById(id)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT is_deleted AND deleted_at IS NOT NULL FROM orders WHERE id = ?",
+                Boolean.class, id)).isTrue();
+    }
+}
@@ -0,0 +1,290 @@
+package org.example.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.dto.cartItem.CartItemRequestDto;
+import org.example.dto.cartItem.CartItemUpdateDto;
+import org.example.dto.order.OrderRequestDto;
+import org.example.dto.order.OrderUpdateDto;
+import org.example.dto.shoppingcart.ShoppingCartDto;
+import org.example.dto.shoppingcart.ShoppingCartItemDto;
+import org.example.exception.PreconditionFailedException;
+import org.example.mapper.CartItemMapperImpl;
+import org.example.model.Book;
+import org.example.model.Order;
+import org.example.model.ShoppingCart;
+import org.example.model.Status;
+import org.example.model.User;
+import org.example.repository.OrderRepository;
+import org.example.service.bestseller.BestsellerBoard;
+import org.example.service.order.OrderService;
+import org.example.service.order.OrderServiceTestConfig;
+import org.example.service.order.OrderTestCleanup;
+import org.example.service.recommendation.CoOccurrenceModel;
+import org.example.service.shoppingcart.ShoppingCartService;
+import org.example.service.shoppingcart.ShoppingCartServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceTestConfig.class, ShoppingCartServiceImpl.class,
+        CartItemMapperImpl.class})
+@TestPropertySource(properties = "optimistic-lock.retry.max-attempts=10")
+class OptimisticConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int CHANGES_PER_THREAD = 5;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private CoOccurrenceModel coOccurrenceModel;
+
+    @MockitoBean
+    private BestsellerBoard bestsellerBoard;
+
+    private Long userId;
+    private Long firstBookId;
+    private Long secondBookId;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = new User();
+            user.setEmail("concurrency@example.com");
+            user.setPassword("password");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            entityManager.persist(user);
+            ShoppingCart cart = new ShoppingCart();
+            cart.setUser(user);
+            entityManager.persist(cart);
+            userId = user.getId();
+            firstBookId = entityManager.persist(book("first")).getId();
+            secondBookId = entityManager.persist(book("second")).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        OrderTestCleanup.deleteUsers(jdbcTemplate, List.of(userId));
+        OrderTestCleanup.deleteBooks(jdbcTemplate, firstBookId, secondBookId);
+    }
+
+    @Test
+    @DisplayName("Parallel adds of the same book should all be counted")
+    void testAddItem_ParallelAdds_NoLostUpdates() throws Exception {
+        Long initialVersion = shoppingCartService.getVersion(userId);
+
+        runInParallel(() -> {
+            for (int i = 0; i < CHANGES_PER_THREAD; i++) {
+                shoppingCartService.addItem(userId, request(firstBookId, 1), null);
+            }
+            return null;
+        });
+
+        ShoppingCartDto cart = shoppingCartService.getByUserId(userId);
+        assertThat(cart.getCartItems()).singleElement()
+                .extracting(ShoppingCartItemDto::getQuantity)
+                .isEqualTo(THREADS * CHANGES_PER_THREAD);
+        assertThat(shoppingCartService.getVersion(userId))
+                .isEqualTo(initialVersion + THREADS * CHANGES_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("Parallel read-modify-write updates with If-Match should never overwrite each other")
+    void testUpdate_ParallelConditionalIncrements_NoLostUpdates() throws Exception {
+        shoppingCartService.addItem(userId, request(firstBookId, 1), null);
+        Long itemId = shoppingCartService.getByUserId(userId).getCartItems().iterator().next()
+                .getId();
+
+        runInParallel(() -> {
+            for (int i = 0; i < CHANGES_PER_THREAD; i++) {
+                while (true) {
+                    Long version = shoppingCartService.getVersion(userId);
+                    int quantity = shoppingCartService.getByUserId(userId).getCartItems()
+                            .iterator().next().getQuantity();
+                    try {
+                        shoppingCartService.update(userId, itemId,
+                                update(quantity + 1), version);
+                        break;
+                    } catch (PreconditionFailedException e) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }
+            return null;
+        });
+
+        assertThat(shoppingCartService.getByUserId(userId).getCartItems()).singleElement()
+                .extracting(ShoppingCartItemDto::getQuantity)
+                .isEqualTo(1 + THREADS * CHANGES_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("The version returned by an update should be accepted as If-Match by the next one")
+    void testUpdate_ChainedOnReturnedVersion_Succeeds() {
+        ShoppingCartDto added = shoppingCartService.save(userId, request(firstBookId, 1), null);
+        Long itemId = added.getCartItems().iterator().next().getId();
+
+        ShoppingCartDto first = shoppingCartService.update(userId, itemId, update(2),
+                added.getVersion());
+        ShoppingCartDto second = shoppingCartService.update(userId, itemId, update(3),
+                first.getVersion());
+        shoppingCartService.deleteById(userId, itemId, second.getVersion());
+
+        assertThat(first.getVersion()).isEqualTo(added.getVersion() + 1);
+        assertThat(second.getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(shoppingCartService.getVersion(userId)).isEqualTo(second.getVersion() + 1);
+        assertThat(shoppingCartService.getByUserId(userId).getCartItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Checkout racing with cart adds should keep every added item in the order or cart")
+    void testCreateOrder_RacingWithAdds_NoLostItems() throws Exception {
+        shoppingCartService.addItem(userId, request(firstBookId, 1), null);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 1; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CHANGES_PER_THREAD; i++) {
+                        shoppingCartService.addItem(userId, request(secondBookId, 1), null);
+                    }
+                    return null;
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                start.await();
+                OrderRequestDto orderRequest = new OrderRequestDto();
+                orderRequest.setShippingAddress("Address");
+                return orderService.createOrder(userId, orderRequest, null);
+            }));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Integer ordered = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi
+                JOIN orders o ON o.id = oi.order_id WHERE o.user_id = ?""",
+                Integer.class, userId);
+        Integer inCart = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM cart_items WHERE shopping_cart_id = ?",
+                Integer.class, userId);
+        assertThat(ordered + inCart).isEqualTo(1 + (THREADS - 1) * CHANGES_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("Only one of several admins updating an order with the same If-Match should win")
+    void testUpdateOrderStatus_SameExpectedVersion_OneWins() throws Exception {
+        shoppingCartService.addItem(userId, request(firstBookId, 1), null);
+        OrderRequestDto orderRequest = new OrderRequestDto();
+        orderRequest.setShippingAddress("Address");
+        Long orderId = orderService.createOrder(userId, orderRequest, null).getId();
+        Long version = orderRepository.findById(orderId).map(Order::getVersion).orElseThrow();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runInParallel(() -> {
+            try {
+                OrderUpdateDto updateDto = new OrderUpdateDto();
+                updateDto.setStatus(Status.COMPLETED.name());
+                orderService.updateOrderStatus(userId, orderId, updateDto, version);
+                applied.incrementAndGet();
+            } catch (PreconditionFailedException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertThat(applied.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(THREADS - 1);
+        assertThat(orderRepository.findById(orderId).map(Order::getVersion).orElseThrow())
+                .isEqualTo(version + 1);
+    }
+
+    private void runInParallel(Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CartItemRequestDto request(Long bookId, int quantity) {
+        CartItemRequestDto requestDto = new CartItemRequestDto();
+        requestDto.setBookId(bookId);
+        requestDto.setQuantity(quantity);
+        return requestDto;
+    }
+
+    private CartItemUpdateDto update(int quantity) {
+        CartItemUpdateDto updateDto = new CartItemUpdateDto();
+        updateDto.setQuantity(quantity);
+        return updateDto;
+    }
+
+    private Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn-concurrency-" + title);
+        book.setPrice(BigDecimal.ONE);
+        return book;
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.service.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.example.model.Book;
+import org.example.model.CartItem;
+import org.example.model.Category;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.ShoppingCart;
+import org.example.model.Status;
+import org.example.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@DataJpaTest
+class SoftDeleteArchiveJobTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SoftDeleteArchiveJob archiveJob;
+
+    @BeforeEach
+    void setUp() {
+        archiveJob = new SoftDeleteArchiveJob(new NamedParameterJdbcTemplate(jdbcTemplate),
+                transactionManager, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(archiveJob, "retention", Duration.ofDays(30));
+        ReflectionTestUtils.setField(archiveJob, "chunkSize", 1);
+        ReflectionTestUtils.setField(archiveJob, "pauseBetweenChunks", Duration.ZERO);
+        ReflectionTestUtils.setField(archiveJob, "maxChunksPerRun", 100);
+    }
+
+    @Test
+    @DisplayName("run should archive old tombstones and keep rows that orders still reference")
+    void testRun_ArchivesOldTombstonesAndKeepsReferencedRows() throws Exception {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(60);
+        Category category = category("Archived", longAgo);
+        Category liveCategory = category("Live", null);
+        Book archived = book("archived", longAgo, List.of(category, liveCategory));
+        Book ordered = book("ordered", longAgo, List.of());
+        Book recent = book("recent", LocalDateTime.now().minusDays(1), List.of());
+        User customer = user("customer@example.com", longAgo);
+        order(customer, ordered);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<String, Long> result = archiveJob.run();
+
+        assertThat(result).containsEntry("books", 1L)
+                .containsEntry("categories", 1L)
+                .containsEntry("users", 0L);
+        assertThat(ids("books")).containsExactlyInAnyOrder(ordered.getId(), recent.getId());
+        assertThat(ids("categories")).containsExactly(liveCategory.getId());
+        assertThat(ids("users")).containsExactly(customer.getId());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM books_categories WHERE book_id = ?",
+                Long.class, archived.getId())).isZero();
+
+        String payload = jdbcTemplate.queryForObject(
+                "SELECT payload FROM archived_rows WHERE source_table = 'books' AND source_id = ?",
+                String.class, archived.getId());
+        JsonNode json = objectMapper.readTree(payload);
+        assertThat(json.at("/row/isbn").asText()).isEqualTo("isbn-archived");
+        assertThat(json.get("books_categories")).hasSize(2);
+        assertThat(meterRegistry.get("archive.rows.archived").tag("table", "books")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("archive.rows.pending").tag("table", "books")
+                .gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("run should archive a deleted cart with its items and keep other carts intact")
+    void testRun_ArchivesDeletedCartByUserId() throws Exception {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(60);
+        Book book = book("carted", null, List.of());
+        User former = user("former@example.com", null);
+        User active = user("active@example.com", null);
+        cart(former, book, longAgo);
+        cart(active, book, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<String, Long> result = archiveJob.run();
+
+        assertThat(result).containsEntry("shopping_carts", 1L);
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM shopping_carts", Long.class))
+                .containsExactly(active.getId());
+        assertThat(jdbcTemplate.queryForList("SELECT shopping_cart_id FROM cart_items",
+                Long.class)).containsExactly(active.getId());
+
+        String payload = jdbcTemplate.queryForObject("SELECT payload FROM archived_rows "
+                        + "WHERE source_table = 'shopping_carts' AND source_id = ?",
+                String.class, former.getId());
+        JsonNode json = objectMapper.readTree(payload);
+        assertThat(json.at("/row/user_id").asLong()).isEqualTo(former.getId());
+        assertThat(json.get("cart_items")).singleElement().satisfies(item ->
+                assertThat(item.get("book_id").asLong()).isEqualTo(book.getId()));
+    }
+
+    @Test
+    @DisplayName("run should archive entities that were soft-deleted through JPA")
+    void testRun_ArchivesEntitiesDeletedThroughJpa() {
+        Category category = category("Removed", null);
+        Book book = book("removed", null, List.of(category));
+        User user = user("removed@example.com", null);
+        cart(user, book, null);
+        order(user, book);
+        entityManager.flush();
+        entityManager.clear();
+        Order order = entityManager.getEntityManager()
+                .createQuery("SELECT o FROM Order o", Order.class).getSingleResult();
+        entityManager.remove(order);
+        entityManager.remove(entityManager.find(ShoppingCart.class, user.getId()));
+        entityManager.remove(entityManager.find(Book.class, book.getId()));
+        entityManager.remove(entityManager.find(Category.class, category.getId()));
+        entityManager.remove(entityManager.find(User.class, user.getId()));
+        entityManager.flush();
+        entityManager.clear();
+        ReflectionTestUtils.setField(archiveJob, "retention", Duration.ZERO);
+
+        Map<String, Long> result = archiveJob.run();
+
+        assertThat(result).containsEntry("orders", 1L)
+                .containsEntry("shopping_carts", 1L)
+                .containsEntry("books", 1L)
+                .containsEntry("categories", 1L)
+                .containsEntry("users", 1L);
+        assertThat(jdbcTemplate.queryForList("SELECT source_table FROM archived_rows",
+                String.class)).containsExactlyInAnyOrder("orders", "shopping_carts", "books",
+                "categories", "users");
+        assertThat(ids("orders")).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM shopping_carts", Long.class))
+                .isEmpty();
+        assertThat(ids("books")).isEmpty();
+        assertThat(ids("categories")).isEmpty();
+        assertThat(ids("users")).isEmpty();
+    }
+
+    private List<Long> ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table, Long.class);
+    }
+
+    private Category category(String name, LocalDateTime deletedAt) {
+        Category category = new Category();
+        category.setName(name);
+        category.setDeleted(deletedAt != null);
+        category.setDeletedAt(deletedAt);
+        return entityManager.persist(category);
+    }
+
+    private Book book(String title, LocalDateTime deletedAt, List<Category> categories) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn-" + title);
+        book.setPrice(BigDecimal.TEN);
+        book.setDeleted(deletedAt != null);
+        book.setDeletedAt(deletedAt);
+        book.getCategories().addAll(categories);
+        return entityManager.persist(book);
+    }
+
+    private User user(String email, LocalDateTime deletedAt) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setDeleted(deletedAt != null);
+        user.setDeletedAt(deletedAt);
+        return entityManager.persist(user);
+    }
+
+    private void cart(User user, Book book, LocalDateTime deletedAt) {
+        ShoppingCart cart = new ShoppingCart();
+        cart.setUser(user);
+        cart.setDeleted(deletedAt != null);
+        cart.setDeletedAt(deletedAt);
+        entityManager.persist(cart);
+        CartItem item = new CartItem();
+        item.setShoppingCart(cart);
+        item.setBook(book);
+        item.setQuantity(1);
+        entityManager.persist(item);
+    }
+
+    private void order(User user, Book book) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setStatus(Status.PENDING);
+        order.setTotal(BigDecimal.TEN);
+        order.setShippingAddress("Address");
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setBook(book);
+        item.setQuantity(1);
+        item.setPrice(BigDecimal.TEN);
+        order.getOrderItems().add(item);
+        entityManager.persist(order);
+    }
+}
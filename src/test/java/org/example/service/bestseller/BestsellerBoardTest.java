@@ -0,0 +1,75 @@
+package org.example.service.bestseller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BestsellerBoardTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BestsellerBoard board;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM book_sales_hourly");
+        board = newBoard();
+    }
+
+    @Test
+    @DisplayName("recordSales should rank books by copies sold")
+    void testRecordSales_RanksBooksBySold() {
+        board.recordSales(Map.of(1L, 1, 2L, 3));
+        board.recordSales(Map.of(3L, 3, 1L, 1));
+        board.refresh();
+
+        BestsellerBoard.Ranking ranking = board.getRanking(BestsellerWindow.DAY);
+        assertThat(ranking.bookIds()).containsExactly(2L, 3L, 1L);
+        assertThat(ranking.quantities()).containsExactly(3L, 3L, 2L);
+        assertThat(board.getRanking(BestsellerWindow.MONTH).bookIds()).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    @DisplayName("flush should insert new hourly rows, add to existing ones and survive a reload")
+    void testFlush_UpsertsHourlyRowsInBatches() {
+        board.recordSales(Map.of(1L, 2, 2L, 1, 3L, 1));
+        board.flush();
+        board.recordSales(Map.of(2L, 4));
+        board.flush();
+        board.flush();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_sales_hourly", Long.class)).isEqualTo(3L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM book_sales_hourly WHERE book_id = 2", Long.class))
+                .isEqualTo(5L);
+
+        BestsellerBoard reloaded = newBoard();
+        reloaded.load();
+        BestsellerBoard.Ranking ranking = reloaded.getRanking(BestsellerWindow.WEEK);
+        assertThat(ranking.bookIds()).containsExactly(2L, 1L, 3L);
+        assertThat(ranking.quantities()).containsExactly(5L, 2L, 1L);
+    }
+
+    private BestsellerBoard newBoard() {
+        BestsellerBoard created = new BestsellerBoard(
+                new NamedParameterJdbcTemplate(jdbcTemplate), transactionManager);
+        ReflectionTestUtils.setField(created, "batchSize", 2);
+        return created;
+    }
+}
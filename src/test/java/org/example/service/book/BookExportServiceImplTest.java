@@ -0,0 +1,106 @@
+package org.example.service.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.example.model.Book;
+import org.example.repository.BookCategoryLink;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class BookExportServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BookExportServiceImpl bookExportService;
+
+    @BeforeEach
+    void setUp() {
+        bookExportService = new BookExportServiceImpl(bookRepository, entityManager,
+                new ObjectMapper());
+        ReflectionTestUtils.setField(bookExportService, "chunkSize", 1);
+    }
+
+    @Test
+    void exportBooks_ndjson_writesOneObjectPerLineAndClearsContextPerChunk() throws IOException {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(
+                book(1L, "Dune"), book(2L, "Emma")));
+        when(bookRepository.findCategoryLinks(anyCollection()))
+                .thenReturn(List.of(link(1L, 5L), link(1L, 6L)))
+                .thenReturn(List.of());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bookExportService.exportBooks(output, BookExportFormat.NDJSON);
+
+        assertEquals("""
+                {"id":1,"title":"Dune","author":"Author","isbn":"isbn-1","price":9.99,\
+                "description":null,"coverImage":null,"categoryIds":[5,6]}
+                {"id":2,"title":"Emma","author":"Author","isbn":"isbn-2","price":9.99,\
+                "description":null,"coverImage":null,"categoryIds":[]}
+                """, output.toString(StandardCharsets.UTF_8));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void exportBooks_csv_writesGzipWithHeaderAndQuotedValues() throws IOException {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book(1L, "Hobbit, The")));
+        when(bookRepository.findCategoryLinks(anyCollection()))
+                .thenReturn(List.of(link(1L, 5L), link(1L, 6L)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bookExportService.exportBooks(output, BookExportFormat.CSV);
+
+        try (GZIPInputStream csv = new GZIPInputStream(
+                new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("""
+                    id,title,author,isbn,price,description,coverImage,categoryIds
+                    1,"Hobbit, The",Author,isbn-1,9.99,,,5;6
+                    """, new String(csv.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private Book book(Long id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn-" + id);
+        book.setPrice(new BigDecimal("9.99"));
+        return book;
+    }
+
+    private BookCategoryLink link(Long bookId, Long categoryId) {
+        return new BookCategoryLink() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+        };
+    }
+}
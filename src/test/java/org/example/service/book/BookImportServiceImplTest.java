@@ -0,0 +1,152 @@
+package org.example.service.book;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.example.dto.book.BookImportResultDto;
+import org.example.dto.book.CreateBookRequestDto;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.example.repository.CategoryRepository;
+import org.example.service.category.CategoryBookIndex;
+import org.example.service.search.BookSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private IsbnBloomFilter isbnFilter;
+
+    @Mock
+    private CategoryBookIndex categoryBookIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookImportServiceImpl bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportServiceImpl(bookRepository, categoryRepository,
+                bookSearchService, isbnFilter, categoryBookIndex,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), transactionTemplate);
+        ReflectionTestUtils.setField(bookImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(bookImportService, "maxReportedErrors", 10);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void importBooks_csv_insertsValidRowsInBatchesAndReportsInvalidOnes() {
+        String csv = """
+                title,author,isbn,price,categoryIds
+                Dune,Frank Herbert,isbn-1,10.50,1
+                "Hobbit, The",Tolkien,isbn-2,8,1;2
+                No price,Someone,isbn-3,,1
+                Unknown category,Someone,isbn-4,5,3
+                Taken,Someone,isbn-5,5,1
+                """;
+        when(categoryRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        when(bookRepository.findExistingIsbns(anyCollection()))
+                .thenReturn(Set.of())
+                .thenReturn(Set.of("isbn-5"));
+        when(bookRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<CreateBookRequestDto> books = invocation.getArgument(0);
+            return books.stream().map(requestDto -> {
+                Book book = new Book();
+                book.setIsbn(requestDto.getIsbn());
+                return book;
+            }).toList();
+        });
+
+        BookImportResultDto result = bookImportService.importBooks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportFormat.CSV);
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(3, result.getFailedRows());
+        assertEquals(List.of(3L, 4L, 5L), result.getErrors().stream()
+                .map(error -> error.getRow()).toList());
+        verify(bookSearchService, times(2)).index(any());
+        verify(isbnFilter).put("isbn-1");
+        verify(isbnFilter).put("isbn-2");
+    }
+
+    @Test
+    void importBooks_failedBatch_rejectsOnlyOffendingRows() {
+        String csv = """
+                title,author,isbn,price,categoryIds
+                Dune,Frank Herbert,isbn-1,10.50,1
+                Raced,Someone,isbn-2,8,1
+                """;
+        when(categoryRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<CreateBookRequestDto> books = invocation.getArgument(0);
+            if (books.stream().anyMatch(requestDto -> requestDto.getIsbn().equals("isbn-2"))) {
+                throw new DuplicateKeyException("Duplicate entry 'isbn-2'");
+            }
+            Book book = new Book();
+            book.setIsbn(books.get(0).getIsbn());
+            return List.of(book);
+        });
+
+        BookImportResultDto result = bookImportService.importBooks(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportFormat.CSV);
+
+        assertEquals(1, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+        assertEquals("isbn-2", result.getErrors().get(0).getIsbn());
+        assertEquals(List.of("Insert failed: Duplicate entry 'isbn-2'"),
+                result.getErrors().get(0).getMessages());
+        verify(isbnFilter).put("isbn-1");
+    }
+
+    @Test
+    void importBooks_ndjsonMalformedLine_isReportedAndSkipped() {
+        String ndjson = """
+                {"title":"Dune","author":"Frank Herbert","isbn":"isbn-1","price":10,"categoryIds":[1]}
+                {not json}
+                """;
+        when(categoryRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(bookRepository.insertAll(anyList())).thenReturn(List.of(new Book()));
+
+        BookImportResultDto result = bookImportService.importBooks(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                BookImportFormat.NDJSON);
+
+        assertEquals(1, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+    }
+}
@@ -2,12 +2,25 @@ package org.example.service.book;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import org.example.config.CacheConfig;
+import org.example.dto.book.BookBatchResponseDto;
+import org.example.dto.book.BookCategoryAssignmentRequestDto;
 import org.example.dto.book.BookDto;
+import org.example.dto.book.BookFacetsDto;
+import org.example.dto.book.BookFilterDto;
+import org.example.dto.book.PriceBucketFacetDto;
 import org.example.dto.book.CreateBookRequestDto;
 import org.example.exception.EntityNotFoundException;
 import org.example.mapper.BookMapper;
@@ -15,15 +28,21 @@ import org.example.model.Book;
 import org.example.model.Category;
 import org.example.repository.BookRepository;
 import org.example.repository.CategoryRepository;
+import org.example.service.category.CategoryBookIndex;
+import org.example.service.search.BookSearchService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceImplTest {
@@ -36,6 +55,18 @@ class BookServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private BookSearchService bookSearchService;
+
+    @Mock
+    private IsbnBloomFilter isbnFilter;
+
+    @Mock
+    private CategoryBookIndex categoryBookIndex;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS);
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -72,26 +103,18 @@ class BookServiceImplTest {
     }
 
     @Test
-    void findAll_returnsMappedPage() {
+    void findAll_returnsProjectedPage() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        Book book1 = new Book();
-        book1.setId(1L);
-
-        Book book2 = new Book();
-        book2.setId(2L);
-
         BookDto bookDto1 = new BookDto();
         bookDto1.setId(1L);
 
         BookDto bookDto2 = new BookDto();
         bookDto2.setId(2L);
 
-        Page<Book> bookPage = new PageImpl<>(List.of(book1, book2));
+        Page<BookDto> bookPage = new PageImpl<>(List.of(bookDto1, bookDto2));
 
-        when(bookRepository.findAll(pageable)).thenReturn(bookPage);
-        when(bookMapper.toDto(book1)).thenReturn(bookDto1);
-        when(bookMapper.toDto(book2)).thenReturn(bookDto2);
+        when(bookRepository.findAllDtos(pageable)).thenReturn(bookPage);
 
         Page<BookDto> result = bookService.findAll(pageable);
 
@@ -99,9 +122,8 @@ class BookServiceImplTest {
         assertEquals(bookDto1, result.getContent().get(0));
         assertEquals(bookDto2, result.getContent().get(1));
 
-        verify(bookRepository).findAll(pageable);
-        verify(bookMapper).toDto(book1);
-        verify(bookMapper).toDto(book2);
+        verify(bookRepository).findAllDtos(pageable);
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
@@ -128,6 +150,7 @@ class BookServiceImplTest {
 
         verify(bookMapper).toModel(request);
         verify(bookRepository).save(savedBook);
+        verify(bookSearchService).index(savedBook);
         verify(bookMapper).toDto(savedBook);
     }
 
@@ -191,6 +214,7 @@ class BookServiceImplTest {
 
         verify(bookRepository).existsById(id);
         verify(bookRepository).deleteById(id);
+        verify(bookSearchService).remove(id);
     }
 
     @Test
@@ -243,12 +267,13 @@ class BookServiceImplTest {
         Book model = new Book();
         when(bookMapper.toModel(request)).thenReturn(model);
 
-        when(categoryRepository.findById(100L)).thenReturn(Optional.empty());
+        when(categoryRepository.findAllById(Set.of(100L))).thenReturn(List.of());
 
-        assertThrows(EntityNotFoundException.class,
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookService.save(request));
 
-        verify(categoryRepository).findById(100L);
+        assertEquals("Categories not found: [100]", exception.getMessage());
+        verify(categoryRepository).findAllById(Set.of(100L));
     }
 
     @Test
@@ -277,7 +302,7 @@ class BookServiceImplTest {
         expectedDto.setTitle("Books");
 
         when(bookMapper.toModel(request)).thenReturn(entity);
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryRepository.findAllById(Set.of(categoryId))).thenReturn(List.of(category));
         when(bookRepository.save(entity)).thenReturn(savedEntity);
         when(bookMapper.toDto(savedEntity)).thenReturn(expectedDto);
 
@@ -289,8 +314,110 @@ class BookServiceImplTest {
         assertEquals(categoryId, entity.getCategories().iterator().next().getId());
 
         verify(bookMapper).toModel(request);
-        verify(categoryRepository).findById(categoryId);
+        verify(categoryRepository).findAllById(Set.of(categoryId));
         verify(bookRepository).save(entity);
         verify(bookMapper).toDto(savedEntity);
     }
+
+    @Test
+    void assignCategories_missingCategories_reportsAllMissingIds() {
+        BookCategoryAssignmentRequestDto request = new BookCategoryAssignmentRequestDto();
+        request.setBookIds(List.of(1L, 2L));
+        request.setCategoryIds(List.of(10L, 11L, 12L));
+
+        Category category = new Category();
+        category.setId(11L);
+        when(categoryRepository.findAllById(Set.of(10L, 11L, 12L))).thenReturn(List.of(category));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> bookService.assignCategories(request));
+
+        assertEquals("Categories not found: [10, 12]", exception.getMessage());
+        verify(bookRepository, never()).assignCategories(request.getBookIds(),
+                request.getCategoryIds());
+    }
+
+    @Test
+    void assignCategories_existingCategories_returnsAffectedRows() {
+        BookCategoryAssignmentRequestDto request = new BookCategoryAssignmentRequestDto();
+        request.setBookIds(List.of(1L, 2L));
+        request.setCategoryIds(List.of(10L));
+
+        Category category = new Category();
+        category.setId(10L);
+        when(categoryRepository.findAllById(Set.of(10L))).thenReturn(List.of(category));
+        when(bookRepository.assignCategories(request.getBookIds(), request.getCategoryIds()))
+                .thenReturn(2);
+
+        assertEquals(2, bookService.assignCategories(request).getAffectedRows());
+        verify(categoryBookIndex).reloadCategories(request.getCategoryIds());
+    }
+
+    @Test
+    void getBookByIsbn_filteredOut_throwsWithoutQuery() {
+        when(isbnFilter.mightContain("missing")).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> bookService.getBookByIsbn("missing"));
+
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBooksByIsbns_queriesOnlyCandidates() {
+        BookDto bookDto = new BookDto();
+        bookDto.setIsbn("known");
+        when(isbnFilter.mightContain("known")).thenReturn(true);
+        when(isbnFilter.mightContain("missing")).thenReturn(false);
+        when(bookRepository.findDtosByIsbnIn(List.of("known"))).thenReturn(List.of(bookDto));
+
+        List<BookDto> result = bookService.getBooksByIsbns(List.of("known", "missing", "known"));
+
+        assertEquals(List.of(bookDto), result);
+    }
+
+    @Test
+    void findAll_emptyFilter_usesUnfilteredProjection() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<BookDto> page = new PageImpl<>(List.of(new BookDto()));
+        when(bookRepository.findAllDtos(pageable)).thenReturn(page);
+
+        assertEquals(page, bookService.findAll(new BookFilterDto(), pageable));
+    }
+
+    @Test
+    void getFacets_mapsCountsToOpenEndedPriceBuckets() {
+        List<BigDecimal> boundaries = List.of(BigDecimal.TEN, BigDecimal.valueOf(50));
+        ReflectionTestUtils.setField(bookService, "priceBoundaries", boundaries);
+        BookFilterDto filter = new BookFilterDto();
+        filter.setAuthor("Austen");
+        when(bookRepository.countByCategory(any())).thenReturn(Map.of(3L, 2L));
+        when(bookRepository.countByPriceBuckets(any(), eq(boundaries)))
+                .thenReturn(List.of(1L, 0L, 4L));
+
+        BookFacetsDto facets = bookService.getFacets(filter);
+
+        assertEquals(1, facets.getCategories().size());
+        assertEquals(2L, facets.getCategories().get(0).getCount());
+        assertEquals(List.of(
+                new PriceBucketFacetDto(null, BigDecimal.TEN, 1L),
+                new PriceBucketFacetDto(BigDecimal.TEN, BigDecimal.valueOf(50), 0L),
+                new PriceBucketFacetDto(BigDecimal.valueOf(50), null, 4L)),
+                facets.getPriceBuckets());
+    }
+
+    @Test
+    void getBooksByIds_mixesCachedAndLoadedBooksInRequestOrder() {
+        BookDto cached = new BookDto();
+        cached.setId(3L);
+        BookDto loaded = new BookDto();
+        loaded.setId(1L);
+        cacheManager.getCache(CacheConfig.BOOKS).put(3L, cached);
+        when(bookRepository.findDtosByIdIn(List.of(1L, 7L))).thenReturn(List.of(loaded));
+
+        BookBatchResponseDto result = bookService.getBooksByIds(List.of(3L, 1L, 7L, 3L));
+
+        assertEquals(List.of(cached, loaded), result.getBooks());
+        assertEquals(List.of(7L), result.getMissingIds());
+        assertEquals(loaded, cacheManager.getCache(CacheConfig.BOOKS).get(1L, BookDto.class));
+    }
 }
@@ -0,0 +1,66 @@
+package org.example.service.book;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class IsbnBloomFilterTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IsbnBloomFilter isbnFilter;
+
+    @BeforeEach
+    void setUp() {
+        isbnFilter = new IsbnBloomFilter(bookRepository, transactionManager);
+        ReflectionTestUtils.setField(isbnFilter, "expectedInsertions", 10_000L);
+        ReflectionTestUtils.setField(isbnFilter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(isbnFilter, "maxStaleRatio", 0.2);
+    }
+
+    @Test
+    void mightContain_beforeRebuild_letsEveryLookupThrough() {
+        assertTrue(isbnFilter.mightContain("unknown"));
+    }
+
+    @Test
+    void rebuild_loadsKnownIsbnsAndRejectsMostUnknownOnes() {
+        when(bookRepository.count()).thenReturn(5_000L);
+        when(bookRepository.streamAllIsbns()).thenReturn(
+                IntStream.range(0, 5_000).mapToObj(i -> "known-" + i));
+
+        isbnFilter.rebuild();
+
+        assertTrue(IntStream.range(0, 5_000).allMatch(i -> isbnFilter.mightContain("known-" + i)));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> isbnFilter.mightContain("unknown-" + i))
+                .count();
+        assertTrue(falsePositives < 200, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void put_afterRebuild_isVisibleToLookups() {
+        when(bookRepository.count()).thenReturn(0L);
+        when(bookRepository.streamAllIsbns()).thenReturn(Stream.empty());
+        isbnFilter.rebuild();
+        assertFalse(isbnFilter.mightContain("978-0-00-000000-1"));
+
+        isbnFilter.put("978-0-00-000000-1");
+
+        assertTrue(isbnFilter.mightContain("978-0-00-000000-1"));
+    }
+}
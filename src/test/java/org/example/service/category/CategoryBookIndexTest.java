@@ -0,0 +1,135 @@
+package org.example.service.category;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.example.dto.category.CategoryIndexReportDto;
+import org.example.repository.BookCategoryLink;
+import org.example.repository.BookRepository;
+import org.example.repository.CategoryBookStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryBookIndexTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategoryBookIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryBookIndex(bookRepository, transactionManager);
+        when(bookRepository.streamAllCategoryLinks()).thenReturn(Stream.of(
+                link(1L, 10L), link(2L, 10L), link(3L, 10L), link(4L, 10L),
+                link(2L, 20L), link(3L, 20L), link(5L, 20L),
+                link(3L, 30L), link(6L, 30L)));
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_marksIndexReady() {
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void query_intersectsUnitesAndExcludes() {
+        assertEquals(List.of(2L, 3L), ids(List.of(10L, 20L), null, null));
+        assertEquals(List.of(2L), ids(List.of(10L, 20L), null, List.of(30L)));
+        assertEquals(List.of(1L, 2L, 4L, 5L), ids(null, List.of(10L, 20L), List.of(30L)));
+        assertEquals(List.of(3L), ids(List.of(10L), List.of(30L, 99L), null));
+        assertEquals(List.of(), ids(List.of(10L, 99L), null, null));
+    }
+
+    @Test
+    void query_pagesInIdOrder() {
+        Page<Long> page = index.query(null, List.of(10L, 20L, 30L), null, PageRequest.of(1, 2));
+
+        assertEquals(List.of(3L, 4L), page.getContent());
+        assertEquals(6, page.getTotalElements());
+    }
+
+    @Test
+    void writes_areVisibleToQueries() {
+        index.addBook(7L, List.of(10L, 20L));
+        index.removeBook(2L);
+        index.removeCategory(30L);
+
+        assertEquals(List.of(3L, 7L), ids(List.of(10L, 20L), null, List.of(30L)));
+    }
+
+    @Test
+    void verify_reloadsCategoriesThatDrifted() {
+        when(bookRepository.findCategoryBookStats()).thenReturn(List.of(
+                stats(10L, 4L, 10L), stats(20L, 4L, 18L), stats(30L, 2L, 9L)));
+        when(bookRepository.findCategoryLinksByCategoryIds(Set.of(20L))).thenReturn(List.of(
+                link(2L, 20L), link(3L, 20L), link(5L, 20L), link(8L, 20L)));
+
+        CategoryIndexReportDto report = index.verify();
+
+        assertEquals(List.of(20L), report.getRepairedCategoryIds());
+        assertEquals(List.of(2L, 3L, 5L, 8L), ids(List.of(20L), null, null));
+    }
+
+    @Test
+    void verify_inSync_reportsNothing() {
+        when(bookRepository.findCategoryBookStats()).thenReturn(List.of(
+                stats(10L, 4L, 10L), stats(20L, 3L, 10L), stats(30L, 2L, 9L)));
+
+        CategoryIndexReportDto report = index.verify();
+
+        assertTrue(report.getRepairedCategoryIds().isEmpty());
+        assertEquals(9, report.getLinks());
+        assertFalse(ids(List.of(30L), null, null).isEmpty());
+    }
+
+    private List<Long> ids(List<Long> all, List<Long> any, List<Long> none) {
+        return index.query(all, any, none, PageRequest.of(0, 100)).getContent();
+    }
+
+    private BookCategoryLink link(Long bookId, Long categoryId) {
+        return new BookCategoryLink() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+        };
+    }
+
+    private CategoryBookStats stats(Long categoryId, Long bookCount, Long bookIdSum) {
+        return new CategoryBookStats() {
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public Long getBookCount() {
+                return bookCount;
+            }
+
+            @Override
+            public Long getBookIdSum() {
+                return bookIdSum;
+            }
+        };
+    }
+}
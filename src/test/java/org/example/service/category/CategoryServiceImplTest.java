@@ -2,32 +2,47 @@ package org.example.service.category;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.example.dto.book.BookDto;
 import org.example.dto.category.BookDtoWithoutCategoryIds;
+import org.example.dto.category.CategoryBooksQueryDto;
 import org.example.dto.category.CategoryDto;
+import org.example.dto.pagination.CursorSliceDto;
 import org.example.exception.EntityNotFoundException;
-import org.example.mapper.BookMapper;
 import org.example.mapper.CategoryMapper;
 import org.example.model.Book;
 import org.example.model.Category;
 import org.example.repository.BookRepository;
 import org.example.repository.CategoryRepository;
+import org.example.service.pagination.KeysetCursorCodec;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceImplTest {
@@ -41,7 +56,13 @@ class CategoryServiceImplTest {
     private BookRepository bookRepository;
 
     @Mock
-    private BookMapper bookMapper;
+    private CategoryBookIndex categoryBookIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private KeysetCursorCodec cursorCodec = new KeysetCursorCodec(new ObjectMapper());
 
     @InjectMocks
     private CategoryServiceImpl categoryService;
@@ -193,6 +214,7 @@ class CategoryServiceImplTest {
         categoryService.deleteById(id);
 
         verify(categoryRepository).deleteById(id);
+        verify(categoryBookIndex).removeCategory(id);
     }
 
     @Test
@@ -210,18 +232,80 @@ class CategoryServiceImplTest {
     }
 
     @Test
-    void getBooksByCategoryId_ShouldReturnMappedDtos() {
+    void getBooksByCategoryId_ShouldReturnSliceWithCursorOfLastBook() {
+        Long id = 10L;
+        BookDtoWithoutCategoryIds first = book(3L, "First");
+        BookDtoWithoutCategoryIds second = book(8L, "Second");
+        BookDtoWithoutCategoryIds extra = book(9L, "Extra");
+
+        when(bookRepository.findDtosByCategoryIdAfter(id, 0L, Limit.of(3)))
+                .thenReturn(List.of(first, second, extra));
+
+        CursorSliceDto<BookDtoWithoutCategoryIds> result =
+                categoryService.getBooksByCategoryId(id, null, PageRequest.of(0, 2));
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals(8L, cursorCodec.decodeAfterId(result.getNextCursor(), Book.class));
+    }
+
+    @Test
+    void streamBooksByCategoryId_ShouldWriteOneJsonObjectPerLine() throws Exception {
         Long id = 10L;
-        Book book = new Book();
-        BookDtoWithoutCategoryIds dto = new BookDtoWithoutCategoryIds();
+        ReflectionTestUtils.setField(categoryService, "flushSize", 1);
+        when(bookRepository.streamDtosByCategoryId(id))
+                .thenReturn(Stream.of(book(3L, "First"), book(8L, "Second")));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        categoryService.streamBooksByCategoryId(id, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("First", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals(8L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
 
-        when(bookRepository.findByCategoriesId(id)).thenReturn(List.of(book));
-        when(bookMapper.toDtoWithoutCategories(book)).thenReturn(dto);
+    @Test
+    void findBooksByCategories_IndexReady_ShouldLoadPageOfIndexedIds() {
+        Pageable pageable = PageRequest.of(1, 2);
+        CategoryBooksQueryDto query = new CategoryBooksQueryDto();
+        query.setAll(List.of(1L, 2L));
+        query.setNone(List.of(3L));
+        BookDto first = new BookDto();
+        first.setId(7L);
+        BookDto second = new BookDto();
+        second.setId(9L);
+
+        when(categoryBookIndex.isReady()).thenReturn(true);
+        when(categoryBookIndex.query(query.getAll(), null, query.getNone(), pageable))
+                .thenReturn(new PageImpl<>(List.of(7L, 9L), pageable, 5));
+        when(bookRepository.findDtosByIdIn(List.of(7L, 9L))).thenReturn(List.of(first, second));
+
+        Page<BookDto> result = categoryService.findBooksByCategories(query, pageable);
+
+        assertEquals(List.of(first, second), result.getContent());
+        assertEquals(5, result.getTotalElements());
+    }
 
-        List<BookDtoWithoutCategoryIds> result = categoryService.getBooksByCategoryId(id);
+    @Test
+    void findBooksByCategories_IndexNotReady_ShouldFallBackToDatabase() {
+        Pageable pageable = PageRequest.of(0, 20);
+        CategoryBooksQueryDto query = new CategoryBooksQueryDto();
+        query.setAny(List.of(1L));
+        Page<BookDto> page = new PageImpl<>(List.of(new BookDto()));
+
+        when(categoryBookIndex.isReady()).thenReturn(false);
+        when(bookRepository.findAllDtos(ArgumentMatchers.<Specification<Book>>any(),
+                eq(PageRequest.of(0, 20, Sort.by("id"))))).thenReturn(page);
+
+        assertEquals(page, categoryService.findBooksByCategories(query, pageable));
+        verify(categoryBookIndex, never()).query(any(), any(), any(), any());
+    }
 
-        assertEquals(1, result.size());
-        verify(bookRepository).findByCategoriesId(id);
-        verify(bookMapper).toDtoWithoutCategories(book);
+    private BookDtoWithoutCategoryIds book(Long id, String title) {
+        BookDtoWithoutCategoryIds book = new BookDtoWithoutCategoryIds();
+        book.setId(id);
+        book.setTitle(title);
+        return book;
     }
 }
@@ -0,0 +1,191 @@
+package org.example.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.dto.order.OrderCommandDto;
+import org.example.dto.order.OrderRequestDto;
+import org.example.model.Book;
+import org.example.model.CartItem;
+import org.example.model.OrderCommandStatus;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.example.service.bestseller.BestsellerBoard;
+import org.example.service.recommendation.CoOccurrenceModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OrderServiceTestConfig.class)
+class OrderCommandProcessorTest {
+    private static final int CUSTOMERS = 6;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderCommandQueue orderCommandQueue;
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private CoOccurrenceModel coOccurrenceModel;
+
+    @MockitoBean
+    private BestsellerBoard bestsellerBoard;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private OrderCommandProcessor processor;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        processor = new OrderCommandProcessor(orderCommandQueue, orderService,
+                idempotencyKeyStore, new SimpleMeterRegistry(), 4);
+        ReflectionTestUtils.setField(processor, "enabled", true);
+        ReflectionTestUtils.setField(processor, "batchSize", 2);
+        ReflectionTestUtils.setField(processor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(processor, "staleAfter", Duration.ofMinutes(5));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Book book = new Book();
+            book.setTitle("Queued");
+            book.setAuthor("Author");
+            book.setIsbn("isbn-order-commands");
+            book.setPrice(BigDecimal.TEN);
+            bookId = entityManager.persist(book).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        processor.shutdown();
+        OrderTestCleanup.deleteUsers(jdbcTemplate, userIds);
+        OrderTestCleanup.deleteBooks(jdbcTemplate, bookId);
+    }
+
+    @Test
+    @DisplayName("Queued orders should be placed by the workers and failures recorded")
+    void testDrain_ProcessesQueuedCommands() throws InterruptedException {
+        Map<Long, Long> commandsByUser = new HashMap<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Long userId = customer("queued" + i + "@example.com", true);
+            commandsByUser.put(userId, orderService.submitOrder(userId, orderRequest()).getId());
+        }
+        Long emptyCartUserId = customer("empty@example.com", false);
+        Long failingCommandId = orderService.submitOrder(emptyCartUserId, orderRequest())
+                .getId();
+
+        assertThat(orderService.getOrderCommand(emptyCartUserId, failingCommandId).getStatus())
+                .isEqualTo(OrderCommandStatus.PENDING.name());
+        processor.drain();
+
+        for (Map.Entry<Long, Long> entry : commandsByUser.entrySet()) {
+            OrderCommandDto command = awaitTerminal(entry.getKey(), entry.getValue());
+            assertThat(command.getStatus()).isEqualTo(OrderCommandStatus.COMPLETED.name());
+            assertThat(command.getOrderId()).isEqualTo(jdbcTemplate.queryForObject(
+                    "SELECT id FROM orders WHERE user_id = ?", Long.class, entry.getKey()));
+        }
+        OrderCommandDto failed = awaitTerminal(emptyCartUserId, failingCommandId);
+        assertThat(failed.getStatus()).isEqualTo(OrderCommandStatus.FAILED.name());
+        assertThat(failed.getError()).contains("cart is empty");
+    }
+
+    @Test
+    @DisplayName("A command requeued after a worker crash should not place a second order")
+    void testRequeueStale_ReprocessedCommand_ReplaysOriginalOrder() throws InterruptedException {
+        Long userId = customer("crashed@example.com", true);
+        Long commandId = orderService.submitOrder(userId, orderRequest()).getId();
+        processor.drain();
+        Long orderId = awaitTerminal(userId, commandId).getOrderId();
+
+        jdbcTemplate.update("UPDATE order_commands SET status = ?, order_id = NULL, "
+                        + "updated_at = ? WHERE id = ?", OrderCommandStatus.PROCESSING.name(),
+                Timestamp.from(Instant.now().minus(Duration.ofHours(1))), commandId);
+        processor.requeueStaleScheduled();
+        assertThat(orderService.getOrderCommand(userId, commandId).getStatus())
+                .isEqualTo(OrderCommandStatus.PENDING.name());
+        processor.drain();
+
+        OrderCommandDto command = awaitTerminal(userId, commandId);
+        assertThat(command.getStatus()).isEqualTo(OrderCommandStatus.COMPLETED.name());
+        assertThat(command.getOrderId()).isEqualTo(orderId);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    private OrderCommandDto awaitTerminal(Long userId, Long commandId)
+            throws InterruptedException {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (true) {
+            OrderCommandDto command = orderService.getOrderCommand(userId, commandId);
+            if (command.getStatus().equals(OrderCommandStatus.COMPLETED.name())
+                    || command.getStatus().equals(OrderCommandStatus.FAILED.name())
+                    || Instant.now().isAfter(deadline)) {
+                return command;
+            }
+            processor.drain();
+            Thread.sleep(20);
+        }
+    }
+
+    private Long customer(String email, boolean withItem) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User user = new User();
+            user.setEmail(email);
+            user.setPassword("password");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            entityManager.persist(user);
+            ShoppingCart cart = new ShoppingCart();
+            cart.setUser(user);
+            entityManager.persist(cart);
+            if (withItem) {
+                CartItem item = new CartItem();
+                item.setShoppingCart(cart);
+                item.setBook(entityManager.find(Book.class, bookId));
+                item.setQuantity(1);
+                entityManager.persist(item);
+            }
+            userIds.add(user.getId());
+            return user.getId();
+        });
+    }
+
+    private OrderRequestDto orderRequest() {
+        OrderRequestDto orderRequest = new OrderRequestDto();
+        orderRequest.setShippingAddress("Address");
+        return orderRequest;
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.example.dto.order.OrderResponseDto;
+import org.example.dto.pagination.CursorSliceDto;
+import org.example.exception.InvalidCursorException;
+import org.example.model.Book;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Status;
+import org.example.model.User;
+import org.example.service.bestseller.BestsellerBoard;
+import org.example.service.pagination.KeysetCursorCodec;
+import org.example.service.recommendation.CoOccurrenceModel;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@DataJpaTest
+@Import({OrderServiceTestConfig.class, OrderHistoryQueryTest.SqlRecorderConfig.class})
+class OrderHistoryQueryTest {
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int PAGE_SIZE = 4;
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private CoOccurrenceModel coOccurrenceModel;
+
+    @MockitoBean
+    private BestsellerBoard bestsellerBoard;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("history@example.com");
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        entityManager.persist(user);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Book book = new Book();
+            book.setTitle("History " + i);
+            book.setAuthor("Author");
+            book.setIsbn("isbn-history-" + i);
+            book.setPrice(BigDecimal.TEN);
+            books.add(entityManager.persist(book));
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setStatus(Status.PENDING);
+            order.setTotal(BigDecimal.TEN);
+            order.setShippingAddress("Address");
+            order.setOrderDate(start.plusHours(i / 2));
+            for (Book book : books) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setBook(book);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.TEN);
+                order.getOrderItems().add(item);
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        userId = user.getId();
+        STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("A history page should be read with a bounded query and one item query")
+    void testGetUserOrderHistory_PagesInDatabase() {
+        Page<OrderResponseDto> page = orderService.getUserOrderHistory(userId,
+                PageRequest.of(2, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "orderDate")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(page.getContent()).allSatisfy(order ->
+                assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(STATEMENTS).hasSize(3);
+        assertThat(statementsFrom("orders")).anySatisfy(sql ->
+                assertThat(sql).containsAnyOf("fetch first", "limit"));
+        assertThat(statementsFrom("order_items")).singleElement().satisfies(sql ->
+                assertThat(sql).contains(" in "));
+    }
+
+    @Test
+    @DisplayName("Scrolling should walk the whole history newest first with bounded queries")
+    void testScrollUserOrderHistory_WalksAllOrdersWithBoundedQueries() {
+        List<OrderResponseDto> seen = new ArrayList<>();
+        String after = null;
+        int slices = 0;
+        do {
+            STATEMENTS.clear();
+            CursorSliceDto<OrderResponseDto> slice = orderService.scrollUserOrderHistory(
+                    userId, after, PageRequest.ofSize(PAGE_SIZE));
+            seen.addAll(slice.getContent());
+            after = slice.getNextCursor();
+            slices++;
+
+            assertThat(slice.getContent()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            assertThat(STATEMENTS).hasSize(2);
+            assertThat(statementsFrom("orders")).singleElement().satisfies(sql ->
+                    assertThat(sql).containsAnyOf("fetch first", "limit"));
+        } while (after != null);
+
+        assertThat(slices).isEqualTo((ORDERS + PAGE_SIZE - 1) / PAGE_SIZE);
+        assertThat(seen).hasSize(ORDERS);
+        assertThat(seen).extracting(OrderResponseDto::getId).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo(Comparator
+                .comparing(OrderResponseDto::getOrderDate)
+                .thenComparing(OrderResponseDto::getId)
+                .reversed());
+        assertThat(seen).allSatisfy(order ->
+                assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER));
+    }
+
+    @Test
+    @DisplayName("A cursor from another listing should be rejected")
+    void testScrollUserOrderHistory_ForeignCursor_Throws() {
+        KeysetCursorCodec codec = new KeysetCursorCodec(new ObjectMapper());
+        String idOnlyCursor = codec.toSlice(List.of(1L, 2L), 1, id -> id).getNextCursor();
+
+        assertThatThrownBy(() -> orderService.scrollUserOrderHistory(userId, idOnlyCursor,
+                PageRequest.ofSize(PAGE_SIZE)))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private List<String> statementsFrom(String table) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.contains(" from " + table + " "))
+                .toList();
+    }
+
+    @TestConfiguration
+    static class SqlRecorderConfig {
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorder() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql.toLowerCase());
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.dto.order.OrderRequestDto;
+import org.example.dto.order.OrderResponseDto;
+import org.example.exception.IdempotencyKeyException;
+import org.example.model.Book;
+import org.example.model.CartItem;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.example.service.bestseller.BestsellerBoard;
+import org.example.service.recommendation.CoOccurrenceModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OrderServiceTestConfig.class)
+class OrderIdempotencyTest {
+    private static final int THREADS = 8;
+    private static final String KEY = "checkout-7f3a";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private CoOccurrenceModel coOccurrenceModel;
+
+    @MockitoBean
+    private BestsellerBoard bestsellerBoard;
+
+    private Long userId;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = new User();
+            user.setEmail("idempotency@example.com");
+            user.setPassword("password");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            entityManager.persist(user);
+            ShoppingCart cart = new ShoppingCart();
+            cart.setUser(user);
+            entityManager.persist(cart);
+            Book book = new Book();
+            book.setTitle("Idempotent");
+            book.setAuthor("Author");
+            book.setIsbn("isbn-idempotency");
+            book.setPrice(BigDecimal.TEN);
+            entityManager.persist(book);
+            CartItem item = new CartItem();
+            item.setShoppingCart(cart);
+            item.setBook(book);
+            item.setQuantity(2);
+            entityManager.persist(item);
+            userId = user.getId();
+            bookId = book.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        OrderTestCleanup.deleteUsers(jdbcTemplate, List.of(userId));
+        OrderTestCleanup.deleteBooks(jdbcTemplate, bookId);
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates with the same Idempotency-Key should place one order")
+    void testExecute_ConcurrentDuplicates_CreateOrderOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<OrderResponseDto> responses = new ArrayList<>();
+        try {
+            List<Future<OrderResponseDto>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyKeyStore.execute(userId, KEY, orderRequest("Address"),
+                            () -> {
+                                executions.incrementAndGet();
+                                return orderService.createOrder(userId,
+                                        orderRequest("Address"), KEY);
+                            });
+                }));
+            }
+            start.countDown();
+            for (Future<OrderResponseDto> future : futures) {
+                responses.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(responses).extracting(OrderResponseDto::getId).containsOnly(
+                responses.get(0).getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A retry after a restart should replay the stored response from the table")
+    void testExecute_RetryWithColdCache_ReplaysStoredResponse() {
+        OrderResponseDto original = idempotencyKeyStore.execute(userId, KEY,
+                orderRequest("Address"),
+                () -> orderService.createOrder(userId, orderRequest("Address"), KEY));
+        IdempotencyKeyStore restarted = new IdempotencyKeyStore(jdbcTemplate, objectMapper,
+                Duration.ofHours(24), 100, Duration.ofSeconds(5));
+
+        OrderResponseDto replayed = restarted.execute(userId, KEY, orderRequest("Address"),
+                () -> {
+                    throw new AssertionError("The order must not be created twice");
+                });
+
+        assertThat(replayed).isEqualTo(original);
+        assertThatThrownBy(() -> restarted.execute(userId, KEY, orderRequest("Elsewhere"),
+                () -> orderService.createOrder(userId, orderRequest("Elsewhere"), KEY)))
+                .isInstanceOf(IdempotencyKeyException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A duplicate on another instance should wait for the first order and replay it")
+    void testExecute_DuplicateOnAnotherInstance_ReplaysCommittedOrder() throws Exception {
+        CountDownLatch firstInTransaction = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                firstInTransaction.countDown();
+                Thread.sleep(500);
+            }
+            return null;
+        }).when(coOccurrenceModel).recordOrder(anyLong(), any());
+        IdempotencyKeyStore otherInstance = new IdempotencyKeyStore(jdbcTemplate, objectMapper,
+                Duration.ofHours(24), 100, Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<OrderResponseDto> original = executor.submit(() ->
+                    idempotencyKeyStore.execute(userId, KEY, orderRequest("Address"),
+                            () -> orderService.createOrder(userId, orderRequest("Address"), KEY)));
+            assertThat(firstInTransaction.await(10, TimeUnit.SECONDS)).isTrue();
+
+            OrderResponseDto duplicate = otherInstance.execute(userId, KEY,
+                    orderRequest("Address"),
+                    () -> orderService.createOrder(userId, orderRequest("Address"), KEY));
+
+            assertThat(duplicate).isEqualTo(original.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(bestsellerBoard).recordSales(any());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    private OrderRequestDto orderRequest(String shippingAddress) {
+        OrderRequestDto orderRequest = new OrderRequestDto();
+        orderRequest.setShippingAddress(shippingAddress);
+        return orderRequest;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.service.order;
+
+import org.example.mapper.OrderItemMapperImpl;
+import org.example.mapper.OrderMapperImpl;
+import org.example.retry.RetryOnConflictAspect;
+import org.example.service.pagination.KeysetCursorCodec;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+@TestConfiguration
+@ImportAutoConfiguration({AopAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({OrderServiceImpl.class, IdempotencyKeyStore.class, OrderCommandQueue.class,
+        KeysetCursorCodec.class, RetryOnConflictAspect.class, OrderMapperImpl.class,
+        OrderItemMapperImpl.class})
+public class OrderServiceTestConfig {
+}
@@ -0,0 +1,197 @@
+package org.example.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.dto.order.OrderRequestDto;
+import org.example.exception.InsufficientStockException;
+import org.example.model.Book;
+import org.example.model.CartItem;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.example.repository.BookRepository;
+import org.example.service.bestseller.BestsellerBoard;
+import org.example.service.recommendation.CoOccurrenceModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OrderServiceTestConfig.class)
+class OrderStockReservationTest {
+    private static final int CUSTOMERS = 12;
+    private static final int STOCK = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private CoOccurrenceModel coOccurrenceModel;
+
+    @MockitoBean
+    private BestsellerBoard bestsellerBoard;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Long hotBookId;
+    private Long scarceBookId;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            hotBookId = entityManager.persist(book("hot")).getId();
+            scarceBookId = entityManager.persist(book("scarce")).getId();
+        });
+        jdbcTemplate.update("UPDATE books SET stock_quantity = ? WHERE id = ?", STOCK, hotBookId);
+        jdbcTemplate.update("UPDATE books SET stock_quantity = 0 WHERE id = ?", scarceBookId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        OrderTestCleanup.deleteUsers(jdbcTemplate, userIds);
+        OrderTestCleanup.deleteBooks(jdbcTemplate, hotBookId, scarceBookId);
+    }
+
+    @Test
+    @DisplayName("Parallel checkouts of the same book should never sell more than the stock")
+    void testCreateOrder_ParallelCheckouts_NoOversell() throws Exception {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customer("customer" + i + "@example.com", hotBookId);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CUSTOMERS);
+        int placed = 0;
+        int rejected = 0;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long userId : userIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder(userId, orderRequest(), null);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                    placed++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(InsufficientStockException.class);
+                    rejected++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(placed).isEqualTo(STOCK);
+        assertThat(rejected).isEqualTo(CUSTOMERS - STOCK);
+        assertThat(stock(hotBookId)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE book_id = ?",
+                Integer.class, hotBookId)).isEqualTo(STOCK);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE book_id = ?",
+                Integer.class, hotBookId)).isEqualTo(CUSTOMERS - STOCK);
+    }
+
+    @Test
+    @DisplayName("A failed reservation should roll back the whole order")
+    void testCreateOrder_OneBookOutOfStock_RollsBackEverything() {
+        Long userId = customer("rollback@example.com", hotBookId, scarceBookId);
+
+        assertThatThrownBy(() -> orderService.createOrder(userId, orderRequest(), null))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining(String.valueOf(scarceBookId));
+
+        assertThat(stock(hotBookId)).isEqualTo(STOCK);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?",
+                Integer.class, userId)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = ?",
+                Integer.class, userId)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A book deleted after the cart was read should not have its stock reserved")
+    void testReserveStock_DeletedBook_IsReportedInsufficient() {
+        jdbcTemplate.update("UPDATE books SET is_deleted = true WHERE id = ?", hotBookId);
+
+        assertThat(bookRepository.reserveStock(Map.of(hotBookId, 1))).containsExactly(hotBookId);
+        assertThat(stock(hotBookId)).isEqualTo(STOCK);
+    }
+
+    private Long customer(String email, Long... bookIds) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User user = new User();
+            user.setEmail(email);
+            user.setPassword("password");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            entityManager.persist(user);
+            ShoppingCart cart = new ShoppingCart();
+            cart.setUser(user);
+            entityManager.persist(cart);
+            for (Long bookId : bookIds) {
+                CartItem item = new CartItem();
+                item.setShoppingCart(cart);
+                item.setBook(entityManager.find(Book.class, bookId));
+                item.setQuantity(1);
+                entityManager.persist(item);
+            }
+            userIds.add(user.getId());
+            return user.getId();
+        });
+    }
+
+    private Integer stock(Long bookId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM books WHERE id = ?",
+                Integer.class, bookId);
+    }
+
+    private OrderRequestDto orderRequest() {
+        OrderRequestDto orderRequest = new OrderRequestDto();
+        orderRequest.setShippingAddress("Address");
+        return orderRequest;
+    }
+
+    private Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn-stock-" + title);
+        book.setPrice(BigDecimal.TEN);
+        return book;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.service.order;
+
+import java.util.Collection;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public final class OrderTestCleanup {
+    private OrderTestCleanup() {
+    }
+
+    public static void deleteUsers(JdbcTemplate jdbcTemplate, Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM order_commands WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN "
+                    + "(SELECT id FROM orders WHERE user_id = ?)", userId);
+            jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM cart_items WHERE shopping_cart_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM shopping_carts WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+    }
+
+    public static void deleteBooks(JdbcTemplate jdbcTemplate, Long... bookIds) {
+        for (Long bookId : bookIds) {
+            jdbcTemplate.update("DELETE FROM books WHERE id = ?", bookId);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.service.recommendation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.example.dto.book.RelatedBooksModelReportDto;
+import org.example.repository.OrderBookLink;
+import org.example.repository.OrderItemRepository;
+import org.example.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class CoOccurrenceModelTest {
+    private static final List<OrderBookLink> LINKS = List.of(
+            link(1L, 10L), link(1L, 20L), link(1L, 30L),
+            link(2L, 10L), link(2L, 20L),
+            link(3L, 10L), link(3L, 40L),
+            link(4L, 20L), link(4L, 30L),
+            link(5L, 10L), link(5L, 20L), link(5L, 20L));
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private CoOccurrenceModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new CoOccurrenceModel(orderRepository, orderItemRepository);
+        ReflectionTestUtils.setField(model, "topK", 3);
+        ReflectionTestUtils.setField(model, "parallelism", 2);
+        ReflectionTestUtils.setField(model, "partitionSize", 2L);
+    }
+
+    @Test
+    void rebuild_countsPairsAcrossPartitions() {
+        RelatedBooksModelReportDto report = rebuildFromHistory();
+
+        assertEquals(4, report.getBooks());
+        assertEquals(5L, report.getLastOrderId());
+        assertArrayEquals(new long[] {20L, 30L, 40L}, model.getRelated(10L));
+        assertArrayEquals(new long[] {10L, 30L}, model.getRelated(20L));
+        assertArrayEquals(new long[] {10L}, model.getRelated(40L));
+        assertArrayEquals(new long[0], model.getRelated(99L));
+        verify(orderItemRepository, atLeast(2)).findOrderBookLinks(anyLong(), anyLong());
+    }
+
+    @Test
+    void recordOrder_updatesRelatedBooksIncrementally() {
+        rebuildFromHistory();
+
+        model.recordOrder(6L, List.of(40L, 30L));
+        model.recordOrder(7L, List.of(40L, 30L, 50L));
+        model.recordOrder(8L, List.of(30L));
+
+        assertArrayEquals(new long[] {30L, 10L, 50L}, model.getRelated(40L));
+        assertArrayEquals(new long[] {20L, 40L, 10L}, model.getRelated(30L));
+        assertArrayEquals(new long[] {30L, 40L}, model.getRelated(50L));
+    }
+
+    @Test
+    void rebuild_replaysOrderCommittedWhileReadingIdRange() {
+        when(orderRepository.findMinId()).thenReturn(1L);
+        when(orderRepository.findMaxId()).thenAnswer(call -> {
+            model.recordOrder(6L, List.of(40L, 50L));
+            return 5L;
+        });
+        stubOrderBookLinks();
+
+        model.rebuild();
+
+        assertArrayEquals(new long[] {10L, 50L}, model.getRelated(40L));
+        assertArrayEquals(new long[] {40L}, model.getRelated(50L));
+    }
+
+    @Test
+    void counter_keepsCountsAcrossResizeAndRanksTop() {
+        LongIntCounter counter = new LongIntCounter(2);
+        for (long key = 1; key <= 100; key++) {
+            counter.increment(key, (int) (key % 7));
+        }
+        LongIntCounter other = new LongIntCounter();
+        other.increment(3L, 10);
+        counter.merge(other);
+
+        assertEquals(100, counter.size());
+        assertEquals(13, counter.get(3L));
+        assertEquals(0, counter.get(1000L));
+        assertArrayEquals(new long[] {3L, 6L, 13L, 20L}, counter.top(4));
+    }
+
+    private RelatedBooksModelReportDto rebuildFromHistory() {
+        when(orderRepository.findMinId()).thenReturn(1L);
+        when(orderRepository.findMaxId()).thenReturn(5L);
+        stubOrderBookLinks();
+        return model.rebuild();
+    }
+
+    private void stubOrderBookLinks() {
+        when(orderItemRepository.findOrderBookLinks(anyLong(), anyLong())).thenAnswer(call -> {
+            long from = call.getArgument(0);
+            long to = call.getArgument(1);
+            return LINKS.stream()
+                    .filter(link -> link.getOrderId() >= from && link.getOrderId() <= to)
+                    .toList();
+        });
+    }
+
+    private static OrderBookLink link(Long orderId, Long bookId) {
+        return new OrderBookLink() {
+            @Override
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import org.example.dto.book.BookDto;
+import org.example.model.Book;
+import org.example.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchServiceImplTest {
+    @TempDir
+    Path indexPath;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private BookSearchServiceImpl bookSearchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(bookSearchService, "indexPath", indexPath);
+        ReflectionTestUtils.setField(bookSearchService, "rebuildThreads", 2);
+        ReflectionTestUtils.setField(bookSearchService, "rebuildChunkSize", 1);
+        bookSearchService.open();
+
+        when(bookRepository.findMaxId()).thenReturn(2L);
+        when(bookRepository.findAllByIdBetween(anyLong(), anyLong())).thenReturn(List.of());
+        when(bookRepository.findAllByIdBetween(1L, 1L))
+                .thenReturn(List.of(book(1L, "The Hobbit", "J. R. R. Tolkien", "978-0-261-10221-7")));
+        when(bookRepository.findAllByIdBetween(2L, 2L))
+                .thenReturn(List.of(book(2L, "Dune", "Frank Herbert", "978-0-441-17271-9")));
+        bookSearchService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bookSearchService.close();
+    }
+
+    @Test
+    void search_misspelledTitle_findsBook() {
+        Page<BookDto> result = bookSearchService.search("hobit", PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("The Hobbit", result.getContent().get(0).getTitle());
+        assertEquals(new BigDecimal("9.99"), result.getContent().get(0).getPrice());
+    }
+
+    @Test
+    void search_isbnWithoutHyphens_findsBook() {
+        Page<BookDto> result = bookSearchService.search("9780441172719", PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+    }
+
+    @Test
+    void rebuild_removesBooksThatNoLongerExist() {
+        when(bookRepository.findMaxId()).thenReturn(1L);
+
+        bookSearchService.rebuild();
+
+        assertTrue(bookSearchService.search("dune", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private Book book(Long id, String title, String author, String isbn) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn(isbn);
+        book.setPrice(new BigDecimal("9.99"));
+        return book;
+    }
+}
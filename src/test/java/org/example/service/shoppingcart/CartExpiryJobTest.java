@@ -0,0 +1,135 @@
+package org.example.service.shoppingcart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.example.model.Book;
+import org.example.model.CartItem;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.example.repository.ShoppingCartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@DataJpaTest
+class CartExpiryJobTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CartExpiryJob expiryJob;
+
+    @BeforeEach
+    void setUp() {
+        expiryJob = new CartExpiryJob(new NamedParameterJdbcTemplate(jdbcTemplate),
+                transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(expiryJob, "ttl", Duration.ofDays(30));
+        ReflectionTestUtils.setField(expiryJob, "chunkSize", 1);
+        ReflectionTestUtils.setField(expiryJob, "pauseBetweenChunks", Duration.ZERO);
+        ReflectionTestUtils.setField(expiryJob, "maxChunksPerRun", 100);
+    }
+
+    @Test
+    @DisplayName("run should empty carts idle beyond the TTL and keep recently used ones")
+    void testRun_EmptiesIdleCartsOnly() {
+        Book first = book("first");
+        Book second = book("second");
+        ShoppingCart idle = cart("idle@example.com", LocalDateTime.now().minusDays(45),
+                first, second);
+        ShoppingCart alsoIdle = cart("also-idle@example.com", LocalDateTime.now().minusDays(31),
+                first);
+        ShoppingCart active = cart("active@example.com", LocalDateTime.now().minusDays(1),
+                first);
+        entityManager.flush();
+        entityManager.clear();
+
+        CartExpiryJob.ExpiryResult result = expiryJob.run();
+
+        assertThat(result.carts()).isEqualTo(2);
+        assertThat(result.items()).isEqualTo(3);
+        assertThat(itemCount(idle)).isZero();
+        assertThat(itemCount(alsoIdle)).isZero();
+        assertThat(itemCount(active)).isEqualTo(1);
+        assertThat(shoppingCartRepository.findVersionByUserId(idle.getId()))
+                .contains(idle.getVersion() + 1);
+        assertThat(meterRegistry.get("cart.expiry.items.removed").counter().count())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("cart.expiry.run.items.removed").summary().totalAmount())
+                .isEqualTo(3.0);
+        assertThat(expiryJob.run().items()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cart writes should refresh the last-modified timestamp")
+    void testIncrementVersion_TouchesUpdatedAt() {
+        ShoppingCart cart = cart("touched@example.com", LocalDateTime.now().minusDays(45),
+                book("touched"));
+        entityManager.flush();
+        entityManager.clear();
+
+        shoppingCartRepository.incrementVersionByUserId(cart.getId());
+
+        Timestamp updatedAt = jdbcTemplate.queryForObject(
+                "SELECT updated_at FROM shopping_carts WHERE user_id = ?",
+                Timestamp.class, cart.getId());
+        assertThat(updatedAt.toLocalDateTime()).isAfter(LocalDateTime.now().minusMinutes(1));
+        assertThat(expiryJob.run().carts()).isZero();
+    }
+
+    private long itemCount(ShoppingCart cart) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = ?",
+                Long.class, cart.getId());
+    }
+
+    private ShoppingCart cart(String email, LocalDateTime updatedAt, Book... books) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        entityManager.persist(user);
+        ShoppingCart cart = new ShoppingCart();
+        cart.setUser(user);
+        cart.setUpdatedAt(updatedAt);
+        entityManager.persist(cart);
+        for (Book book : List.of(books)) {
+            CartItem item = new CartItem();
+            item.setShoppingCart(cart);
+            item.setBook(book);
+            item.setQuantity(1);
+            entityManager.persist(item);
+        }
+        return cart;
+    }
+
+    private Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn-expiry-" + title);
+        book.setPrice(BigDecimal.TEN);
+        return entityManager.persist(book);
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.service.shoppingcart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.example.exception.EntityNotFoundException;
+import org.example.model.Book;
+import org.example.model.ShoppingCart;
+import org.example.model.User;
+import org.example.repository.BookRepository;
+import org.example.repository.ShoppingCartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindCartStoreTest {
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    private Path journalPath;
+
+    private Long userId;
+    private Long firstBookId;
+    private Long secondBookId;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = new User();
+            user.setEmail("write-behind@example.com");
+            user.setPassword("password");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            entityManager.persist(user);
+            ShoppingCart cart = new ShoppingCart();
+            cart.setUser(user);
+            entityManager.persist(cart);
+            userId = user.getId();
+            firstBookId = entityManager.persist(book("first")).getId();
+            secondBookId = entityManager.persist(book("second")).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cart_items WHERE shopping_cart_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM shopping_carts WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        jdbcTemplate.update("DELETE FROM books WHERE id IN (?, ?)", firstBookId, secondBookId);
+    }
+
+    @Test
+    @DisplayName("flush should write coalesced cart changes and the cart version")
+    void testFlush_WritesCoalescedChanges() {
+        WriteBehindCartStore store = newStore();
+        store.mutate(userId, cart -> cart.add(firstBookId, "first", 1));
+        store.mutate(userId, cart -> cart.add(firstBookId, "first", 2));
+        WriteBehindCartStore.CartSnapshot snapshot =
+                store.mutate(userId, cart -> cart.add(secondBookId, "second", 5));
+        assertThat(items()).isEmpty();
+
+        store.flush();
+
+        assertThat(items()).containsExactlyInAnyOrderEntriesOf(
+                Map.of(firstBookId, 3, secondBookId, 5));
+        assertThat(shoppingCartRepository.findVersionByUserId(userId))
+                .contains(snapshot.version());
+        Long itemId = snapshot.lines().get(0).itemId();
+        store.mutate(userId, cart -> cart.remove(itemId));
+        store.flush();
+        assertThat(items()).containsOnlyKeys(secondBookId);
+    }
+
+    @Test
+    @DisplayName("a restarted store should replay unflushed changes from the journal")
+    void testReplayJournal_RestoresUnflushedChanges() throws Exception {
+        WriteBehindCartStore crashed = newStore();
+        crashed.mutate(userId, cart -> cart.add(firstBookId, "first", 4));
+        WriteBehindCartStore.CartSnapshot snapshot =
+                crashed.mutate(userId, cart -> cart.add(secondBookId, "second", 1));
+
+        WriteBehindCartStore restarted = newStore();
+
+        assertThat(items()).containsExactlyInAnyOrderEntriesOf(
+                Map.of(firstBookId, 4, secondBookId, 1));
+        assertThat(restarted.get(userId).version()).isEqualTo(snapshot.version());
+        try (Stream<Path> segments = Files.list(journalPath)) {
+            assertThat(segments.toList()).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("mutate should leave the cart untouched when a change fails")
+    void testMutate_RollsBackFailedChange() {
+        WriteBehindCartStore store = newStore();
+        store.mutate(userId, cart -> cart.add(firstBookId, "first", 1));
+
+        assertThatThrownBy(() -> store.mutate(userId, cart -> {
+            cart.add(secondBookId, "second", 1);
+            throw new EntityNotFoundException("Can't find cart item by id -1");
+        })).isInstanceOf(EntityNotFoundException.class);
+
+        assertThat(store.get(userId).lines()).extracting(WriteBehindCartStore.CartLine::bookId)
+                .containsExactly(firstBookId);
+    }
+
+    @Test
+    @DisplayName("flushForCheckout should write the cart and drop it from memory")
+    void testFlushForCheckout_WritesAndEvicts() {
+        WriteBehindCartStore store = newStore();
+        store.mutate(userId, cart -> cart.add(firstBookId, "first", 2));
+
+        store.flushForCheckout(userId);
+        jdbcTemplate.update("DELETE FROM cart_items WHERE shopping_cart_id = ?", userId);
+
+        assertThat(store.get(userId).lines()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a checkout waiting on a busy stripe should not block the scheduled flush")
+    void testFlushForCheckout_WaitingOnStripe_DoesNotBlockFlush() throws Exception {
+        WriteBehindCartStore store = newStore();
+        ReentrantLock stripe = ReflectionTestUtils.invokeMethod(store, "lockFor", userId);
+        Long neighbourId = userId + 1;
+        while (ReflectionTestUtils.invokeMethod(store, "lockFor", neighbourId) != stripe) {
+            neighbourId++;
+        }
+        Long sameStripeUserId = neighbourId;
+        CountDownLatch checkoutStarted = new CountDownLatch(1);
+        CountDownLatch checkoutDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        store.flushForCheckout(userId);
+                        checkoutStarted.countDown();
+                        awaitQuietly(checkoutDone);
+                    }));
+            assertThat(checkoutStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.submit(() -> store.flushForCheckout(sameStripeUserId));
+            while (!stripe.hasQueuedThreads()) {
+                Thread.sleep(10);
+            }
+
+            executor.submit(store::flush).get(5, TimeUnit.SECONDS);
+        } finally {
+            checkoutDone.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private WriteBehindCartStore newStore() {
+        WriteBehindCartStore store = new WriteBehindCartStore(shoppingCartRepository,
+                bookRepository, jdbcTemplate, transactionManager, 4);
+        ReflectionTestUtils.setField(store, "journalPath", journalPath);
+        ReflectionTestUtils.setField(store, "journalFsync", false);
+        ReflectionTestUtils.setField(store, "batchSize", 1);
+        ReflectionTestUtils.setField(store, "idleTimeout", Duration.ofMinutes(30));
+        store.replayJournal();
+        return store;
+    }
+
+    private Map<Long, Integer> items() {
+        Map<Long, Integer> items = new HashMap<>();
+        jdbcTemplate.query("SELECT book_id, quantity FROM cart_items WHERE shopping_cart_id = ?",
+                row -> {
+                    items.put(row.getLong("book_id"), row.getInt("quantity"));
+                },
+                userId);
+        return items;
+    }
+
+    private Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn("isbn-write-behind-" + title);
+        book.setPrice(BigDecimal.ONE);
+        return book;
+    }
+}
@@ -1,19 +1,19 @@
-INSERT INTO books (id, title, author, isbn, price, description, cover_image, is_deleted)
+INSERT INTO books (id, title, author, isbn, price, description, cover_image, is_deleted, version)
 VALUES
     (1, 'The Lost Kingdom', 'A. Writer', 'ISBN-001', 199.99,
-     'Adventure in a forgotten land', 'lost-kingdom.jpg', FALSE),
+     'Adventure in a forgotten land', 'lost-kingdom.jpg', FALSE, 0),
 
     (2, 'Quantum Universe', 'Dr. S. Hawkins', 'ISBN-002', 249.50,
-     'Deep dive into quantum mechanics explained simply', 'quantum-universe.jpg', FALSE),
+     'Deep dive into quantum mechanics explained simply', 'quantum-universe.jpg', FALSE, 0),
 
     (3, 'Ancient Empires', 'H. Roberts', 'ISBN-003', 175.00,
-     'Exploring the greatest civilizations in history', 'ancient-empires.jpg', FALSE),
+     'Exploring the greatest civilizations in history', 'ancient-empires.jpg', FALSE, 0),
 
     (4, 'Modern Programming', 'J. Developer', 'ISBN-004', 289.00,
-     'Comprehensive guide to modern programming practices', 'modern-programming.jpg', FALSE),
+     'Comprehensive guide to modern programming practices', 'modern-programming.jpg', FALSE, 0),
 
     (5, 'Startup Strategy', 'E. Johnson', 'ISBN-005', 210.00,
-     'Guide for launching and scaling a startup', 'startup-strategy.jpg', FALSE);
+     'Guide for launching and scaling a startup', 'startup-strategy.jpg', FALSE, 0);
 
 
 INSERT INTO books_categories (book_id, category_id)
@@ -1,7 +1,7 @@
-INSERT INTO categories (id, name, description, is_deleted)
+INSERT INTO categories (id, name, description, is_deleted, version)
 VALUES
-    (1, 'Fiction', 'Books with fictional or narrative content', FALSE),
-    (2, 'Science', 'Books about scientific discoveries and concepts', FALSE),
-    (3, 'History', 'Books covering historical topics and biographies', FALSE),
-    (4, 'Technology', 'Books about modern technologies and innovations', FALSE),
-    (5, 'Business', 'Books about business processes, management and finance', FALSE);
+    (1, 'Fiction', 'Books with fictional or narrative content', FALSE, 0),
+    (2, 'Science', 'Books about scientific discoveries and concepts', FALSE, 0),
+    (3, 'History', 'Books covering historical topics and biographies', FALSE, 0),
+    (4, 'Technology', 'Books about modern technologies and innovations', FALSE, 0),
+    (5, 'Business', 'Books about business processes, management and finance', FALSE, 0);